@@ -4,6 +4,11 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.example.api_cep.service.AquecimentoService;
 
 /**
  * Classe principal da aplicação API de CEP
@@ -16,11 +21,14 @@ import org.springframework.context.annotation.Bean;
  *   - @EnableAutoConfiguration: Ativa configuração automática
  *   - @ComponentScan: Escaneia componentes no pacote e subpacotes
  * 
+ * @EnableScheduling ativa as rotinas periódicas (ex.: limpeza do histórico de alterações)
+ * 
  * @author API CEP Team
  * @version 1.0.0
  * @since 2024-11-05
  */
 @SpringBootApplication
+@EnableScheduling
 public class ApiCepApplication {
 
     /**
@@ -32,6 +40,21 @@ public class ApiCepApplication {
         SpringApplication.run(ApiCepApplication.class, args);
     }
 
+    /**
+     * Aquece o cache de consultas com os CEPs mais acessados antes de a aplicação
+     * ser anunciada como pronta para receber tráfego
+     * 
+     * Executa logo depois da exportação por linha de comando, que encerra a aplicação
+     * antes de o aquecimento começar
+     * 
+     * @return CommandLineRunner executado antes dos demais runners
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public CommandLineRunner aquecerCache(AquecimentoService aquecimentoService) {
+        return args -> aquecimentoService.aquecer();
+    }
+
     /**
      * Bean executado após a aplicação iniciar completamente
      * Exibe informações úteis sobre a API no console
@@ -0,0 +1,152 @@
+package com.example.api_cep.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.event.AlteracoesRegistradasEvent;
+import com.example.api_cep.event.EnderecoAlteradoEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache limitado de consultas por CEP, usado antes do banco em {@code buscarPorCep}
+ *
+ * Dividido em segmentos LRU independentes para reduzir a disputa por lock. Cada alteração
+ * confirmada remove o CEP do cache, nesta instância ao confirmar e nas demais ao ler o
+ * histórico de alterações; o TTL limita o tempo de vida de uma leitura que tenha
+ * corrido com uma escrita concorrente.
+ */
+@Component
+public class EnderecoCache {
+
+    private static final int SEGMENTOS = 16;
+
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+    private final long ttlNanos;
+    private final Counter acertos;
+    private final Counter faltas;
+
+    public EnderecoCache(MeterRegistry meterRegistry,
+                         @Value("${api-cep.cache.capacidade:100000}") int capacidade,
+                         @Value("${api-cep.cache.ttl-segundos:600}") long ttlSegundos) {
+        int capacidadeSegmento = Math.max(1, capacidade / SEGMENTOS);
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento(capacidadeSegmento);
+        }
+        this.ttlNanos = ttlSegundos * 1_000_000_000L;
+
+        this.acertos = Counter.builder("api_cep.cache.consultas").tag("resultado", "acerto").register(meterRegistry);
+        this.faltas = Counter.builder("api_cep.cache.consultas").tag("resultado", "falta").register(meterRegistry);
+        Gauge.builder("api_cep.cache.tamanho", this, EnderecoCache::tamanho).register(meterRegistry);
+        Gauge.builder("api_cep.cache.textos_canonicos", TextosCanonicos::tamanho)
+                .description("Textos compartilhados entre os endereços em memória").register(meterRegistry);
+    }
+
+    /**
+     * Endereço em cache para o CEP, ou {@code null}
+     */
+    public EnderecoResponseDTO buscar(String cep) {
+        Segmento segmento = segmento(cep);
+        Entrada entrada;
+        synchronized (segmento) {
+            entrada = segmento.get(cep);
+            if (entrada != null && entrada.expiraEm() - System.nanoTime() < 0) {
+                segmento.remove(cep);
+                entrada = null;
+            }
+        }
+        if (entrada == null) {
+            faltas.increment();
+            return null;
+        }
+        acertos.increment();
+        return entrada.endereco();
+    }
+
+    public void armazenar(EnderecoResponseDTO endereco) {
+        Segmento segmento = segmento(endereco.getCep());
+        synchronized (segmento) {
+            segmento.put(endereco.getCep(), new Entrada(endereco, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void remover(String cep) {
+        Segmento segmento = segmento(cep);
+        synchronized (segmento) {
+            segmento.remove(cep);
+        }
+    }
+
+    public int tamanho() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.size();
+            }
+        }
+        return total;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarEndereco(EnderecoAlteradoEvent evento) {
+        remover(evento.getCep());
+    }
+
+    /**
+     * Remove os CEPs alterados por qualquer instância, lidos do histórico de alterações
+     *
+     * Entradas que já estão no estado atual (mesmo id e versão do endereço lido do histórico)
+     * são mantidas: é o caso das gravadas por esta instância depois da própria escrita, como
+     * as do ViaCEP e do prefetch.
+     */
+    @EventListener
+    public void aoRegistrarAlteracoes(AlteracoesRegistradasEvent evento) {
+        for (AlteracoesResponseDTO.Alteracao alteracao : evento.getAlteracoes()) {
+            Segmento segmento = segmento(alteracao.getCep());
+            synchronized (segmento) {
+                Entrada entrada = segmento.get(alteracao.getCep());
+                if (entrada != null && !atual(entrada.endereco(), alteracao.getEndereco())) {
+                    segmento.remove(alteracao.getCep());
+                }
+            }
+        }
+    }
+
+    private static boolean atual(EnderecoResponseDTO emCache, EnderecoResponseDTO registrado) {
+        return registrado != null
+                && Objects.equals(emCache.getId(), registrado.getId())
+                && Objects.equals(emCache.getVersao(), registrado.getVersao());
+    }
+
+    private Segmento segmento(String cep) {
+        return segmentos[(cep.hashCode() & Integer.MAX_VALUE) % SEGMENTOS];
+    }
+
+    private record Entrada(EnderecoResponseDTO endereco, long expiraEm) {
+    }
+
+    private static final class Segmento extends LinkedHashMap<String, Entrada> {
+        private final int capacidade;
+
+        private Segmento(int capacidade) {
+            super(16, 0.75f, true);
+            this.capacidade = capacidade;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+            return size() > capacidade;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.api_cep.cache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.api_cep.repository.RankingAcessoRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Estimativa da frequência de acesso por CEP, usada para escolher o que pré-carregar na inicialização
+ *
+ * Usa um Count-Min Sketch de tamanho fixo para as contagens e mantém um conjunto limitado de
+ * candidatos aos mais acessados; o registro de um acesso não ordena nada, os candidatos
+ * excedentes são podados periodicamente. O ranking de cada instância é gravado no banco
+ * (tb_ceps_acessos) e, na inicialização, a soma recente de todas as instâncias é carregada,
+ * de modo que uma réplica nova já aquece com a popularidade do cluster. Esse ranking fica
+ * separado das contagens locais e serve apenas para ordenar o aquecimento: cada instância
+ * grava somente os acessos que ela mesma atendeu, senão a soma do cluster voltaria ao banco
+ * a cada reinício. A cada gravação as contagens caem pela metade, para que a popularidade
+ * recente pese mais.
+ */
+@Component
+@Slf4j
+public class FrequenciaAcessoCeps {
+
+    private static final int PROFUNDIDADE = 4;
+
+    private final int largura;
+    private final AtomicIntegerArray contadores;
+    private final Map<String, Integer> candidatos = new ConcurrentHashMap<>();
+    private final int maximoCandidatos;
+    private final RankingAcessoRepository rankingRepository;
+    private final String instancia = UUID.randomUUID().toString();
+    private final int retencaoHoras;
+
+    /** Soma das contagens do cluster lida na inicialização; não é gravada de volta */
+    private volatile Map<String, Integer> rankingCluster = Map.of();
+
+    /** Estimativa mínima para um CEP novo entrar entre os candidatos quando o conjunto está cheio */
+    private volatile int limiarEntrada;
+
+    public FrequenciaAcessoCeps(@Value("${api-cep.aquecimento.largura-sketch:65536}") int largura,
+                                @Value("${api-cep.aquecimento.maximo-candidatos:20000}") int maximoCandidatos,
+                                @Value("${api-cep.aquecimento.retencao-horas:24}") int retencaoHoras,
+                                RankingAcessoRepository rankingRepository) {
+        this.largura = Integer.highestOneBit(Math.max(1024, largura));
+        this.contadores = new AtomicIntegerArray(PROFUNDIDADE * this.largura);
+        this.maximoCandidatos = maximoCandidatos;
+        this.retencaoHoras = retencaoHoras;
+        this.rankingRepository = rankingRepository;
+    }
+
+    /**
+     * Contabiliza um acesso ao CEP
+     *
+     * Executado em toda consulta: só atualiza contadores. Entre duas podas, o conjunto de
+     * candidatos cresce até o dobro do máximo; acima disso, só os já presentes são atualizados.
+     */
+    public void registrar(String cep) {
+        int estimativa = incrementar(cep, 1);
+        if (candidatos.containsKey(cep)
+                || candidatos.size() < maximoCandidatos
+                || (estimativa > limiarEntrada && candidatos.size() < 2 * maximoCandidatos)) {
+            candidatos.put(cep, estimativa);
+        }
+    }
+
+    /**
+     * Os {@code quantidade} CEPs mais acessados, do mais para o menos acessado, somando o
+     * ranking do cluster às contagens desta instância
+     */
+    public List<String> maisAcessados(int quantidade) {
+        Map<String, Integer> contagens = new HashMap<>(rankingCluster);
+        candidatos.forEach((cep, contagem) -> contagens.merge(cep, contagem, Integer::sum));
+        return contagens.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(quantidade)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Carrega o ranking do cluster antes dos runners da inicialização (aquecimento do cache)
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void carregar() {
+        try {
+            Map<String, Integer> ranking = rankingRepository.buscarRanking(
+                    LocalDateTime.now().minusHours(retencaoHoras), maximoCandidatos);
+            rankingCluster = ranking;
+            log.info("Ranking de acessos carregado: {} CEPs", ranking.size());
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível carregar o ranking de acessos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Grava o ranking dos acessos atendidos por esta instância e envelhece as contagens
+     */
+    @Scheduled(fixedDelayString = "${api-cep.aquecimento.intervalo-gravacao-ms:300000}",
+               initialDelayString = "${api-cep.aquecimento.intervalo-gravacao-ms:300000}")
+    @PreDestroy
+    public synchronized void persistir() {
+        podar();
+        try {
+            rankingRepository.substituir(instancia, Map.copyOf(candidatos), LocalDateTime.now());
+            int removidas = rankingRepository.removerAnterioresA(LocalDateTime.now().minusHours(retencaoHoras));
+            log.debug("Ranking de acessos gravado: {} CEPs; contagens expiradas removidas: {}", candidatos.size(), removidas);
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível gravar o ranking de acessos: {}", e.getMessage());
+        }
+
+        envelhecer();
+    }
+
+    /**
+     * Mantém somente os {@code maximoCandidatos} mais acessados e atualiza o limiar de entrada
+     */
+    @Scheduled(fixedDelayString = "${api-cep.aquecimento.intervalo-poda-ms:10000}")
+    public synchronized void podar() {
+        if (candidatos.size() <= maximoCandidatos) {
+            return;
+        }
+        List<Map.Entry<String, Integer>> ordenados = new ArrayList<>(candidatos.entrySet());
+        ordenados.sort(Comparator.comparing(Map.Entry::getValue));
+        int excedentes = ordenados.size() - maximoCandidatos;
+        for (int i = 0; i < excedentes; i++) {
+            candidatos.remove(ordenados.get(i).getKey());
+        }
+        limiarEntrada = ordenados.get(excedentes).getValue();
+    }
+
+    private void envelhecer() {
+        for (int i = 0; i < contadores.length(); i++) {
+            contadores.updateAndGet(i, valor -> valor >>> 1);
+        }
+        candidatos.replaceAll((cep, contagem) -> contagem >>> 1);
+        limiarEntrada = limiarEntrada >>> 1;
+    }
+
+    /**
+     * Soma {@code quantidade} ao CEP em cada linha do sketch e retorna a estimativa (mínimo entre as linhas)
+     */
+    private int incrementar(String cep, int quantidade) {
+        int hash = cep.hashCode() * 0x9E3779B9;
+        int h2 = (hash >>> 16) | 1;
+        int estimativa = Integer.MAX_VALUE;
+        for (int linha = 0; linha < PROFUNDIDADE; linha++) {
+            int coluna = (hash + linha * h2) & (largura - 1);
+            int valor = contadores.addAndGet(linha * largura + coluna, quantidade);
+            estimativa = Math.min(estimativa, valor);
+        }
+        return estimativa;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.api_cep.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import org.hibernate.Session;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.entity.Endereco;
+import com.example.api_cep.event.AlteracoesRegistradasEvent;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Invalida o cache de segundo nível do Hibernate para escritas feitas fora dele (JDBC direto)
+ * 
+ * O Hibernate não enxerga esses comandos, então quem os executa registra aqui, na mesma transação,
+ * o que ele faria para um comando nativo sincronizado com {@link Endereco}: os timestamps de
+ * tb_enderecos são adiantados durante a transação e de novo ao fim dela, o que impede que
+ * uma consulta concorrente grave um resultado antigo e torna obsoletas só as consultas em cache
+ * que leem a tabela. As escritas em lote descartam a região de endereços inteira, travada até o
+ * fim da transação; as escritas unitárias, apenas a entidade alterada.
+ * 
+ * O cache é local a cada instância: as escritas das demais chegam pelo histórico de alterações
+ * ({@link AlteracoesRegistradasEvent}), que descarta aqui as entidades alteradas e adianta os
+ * mesmos timestamps.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvalidacaoCacheHibernate {
+    
+    private static final Object CHAVE_TRANSACAO = new Object();
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    /**
+     * Descarta todos os endereços e invalida as consultas sobre tb_enderecos; deve ser chamado
+     * antes da escrita, uma ou mais vezes por transação
+     */
+    public void invalidarEnderecosAposCommit() {
+        SharedSessionContractImplementor sessao = sessaoDaTransacao();
+        if (sessao == null) {
+            invalidarEnderecos();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(CHAVE_TRANSACAO)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(CHAVE_TRANSACAO, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CHAVE_TRANSACAO);
+            }
+        });
+        // A mesma ação que o Hibernate agenda para um comando em massa: trava a região e adianta os timestamps
+        BulkOperationCleanupAction.schedule(sessao, persister(sessao.getFactory()));
+    }
+    
+    /**
+     * Descarta o endereço informado e invalida as consultas sobre tb_enderecos ao fim da transação
+     * da escrita; até lá, nenhuma consulta sobre a tabela é gravada no cache
+     * 
+     * @param id identificador do endereço alterado; {@code null} em remoções, em que a entidade
+     *           deixa de ser alcançável assim que as consultas em cache são invalidadas
+     */
+    public void invalidarEnderecoAposCommit(Long id) {
+        List<Long> ids = id != null ? List.of(id) : List.of();
+        SharedSessionContractImplementor sessao = sessaoDaTransacao();
+        if (sessao == null) {
+            invalidarEnderecos(ids);
+            return;
+        }
+        SessionFactoryImplementor fabrica = sessao.getFactory();
+        if (fabrica.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            fabrica.getCache().getTimestampsCache().preInvalidate(persister(fabrica).getQuerySpaces(), sessao);
+        }
+        // Também após um rollback, para encerrar a pré-invalidação dos timestamps
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidarEnderecos(ids);
+            }
+        });
+    }
+    
+    /**
+     * Descarta as entidades alteradas por qualquer instância e invalida as consultas sobre tb_enderecos
+     * 
+     * Remoções não trazem o identificador; a entidade removida deixa de ser alcançável pelas consultas.
+     */
+    @EventListener
+    public void aoRegistrarAlteracoes(AlteracoesRegistradasEvent evento) {
+        List<Long> ids = evento.getAlteracoes().stream()
+                .map(AlteracoesResponseDTO.Alteracao::getEndereco)
+                .filter(Objects::nonNull)
+                .map(EnderecoResponseDTO::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        invalidarEnderecos(ids);
+    }
+    
+    private void invalidarEnderecos() {
+        SessionFactoryImplementor fabrica = fabrica();
+        fabrica.getCache().evictEntityData(Endereco.class);
+        invalidarConsultas(fabrica);
+        log.debug("Cache de segundo nível de endereços invalidado após escrita em lote");
+    }
+    
+    private void invalidarEnderecos(Collection<Long> ids) {
+        SessionFactoryImplementor fabrica = fabrica();
+        ids.forEach(id -> fabrica.getCache().evictEntityData(Endereco.class, id));
+        invalidarConsultas(fabrica);
+        log.debug("Cache de segundo nível invalidado para {} endereços", ids.size());
+    }
+    
+    /**
+     * Adianta os timestamps de tb_enderecos, como o Hibernate faz ao fim de uma transação que
+     * escreveu na tabela; as consultas sobre outras tabelas continuam em cache
+     */
+    private void invalidarConsultas(SessionFactoryImplementor fabrica) {
+        if (!fabrica.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            return;
+        }
+        try (Session sessao = fabrica.openSession()) {
+            fabrica.getCache().getTimestampsCache().invalidate(persister(fabrica).getQuerySpaces(),
+                    sessao.unwrap(SharedSessionContractImplementor.class));
+        }
+    }
+    
+    /**
+     * Sessão do Hibernate da transação corrente; nula fora de uma transação
+     */
+    private SharedSessionContractImplementor sessaoDaTransacao() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        return entityManager != null ? entityManager.unwrap(SharedSessionContractImplementor.class) : null;
+    }
+    
+    private SessionFactoryImplementor fabrica() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+    
+    private static EntityPersister persister(SessionFactoryImplementor fabrica) {
+        return fabrica.getMappingMetamodel().getEntityDescriptor(Endereco.class);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.api_cep.cache;
+
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.StringJavaType;
+
+/**
+ * Tipo Hibernate para colunas texto de baixa cardinalidade: cada valor lido do JDBC é trocado
+ * pela instância canônica de {@link TextosCanonicos}, antes de chegar à entidade, às projeções
+ * e ao cache de segundo nível
+ */
+public class TextoCanonicoJavaType extends StringJavaType {
+    
+    @Override
+    public <X> String wrap(X value, WrapperOptions options) {
+        return TextosCanonicos.canonico(super.wrap(value, options));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.api_cep.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário de instâncias canônicas para os campos de baixa cardinalidade do endereço
+ * (UF, cidade, bairro, DDD e código IBGE)
+ *
+ * Existem 27 UFs e cerca de 5.570 municípios, mas cada endereço lido do banco ou do ViaCEP
+ * traz a própria cópia desses textos. Passando os valores por aqui, entidades, DTOs em cache
+ * e entradas do cache de segundo nível compartilham uma única instância de cada texto.
+ * O dicionário é limitado: depois de cheio, valores novos são devolvidos sem compartilhamento.
+ * Diferente de {@link String#intern()}, o tamanho é controlado e medido.
+ */
+public final class TextosCanonicos {
+    
+    /** Folga para os bairros, que são a maior parte das entradas */
+    private static final int MAXIMO_ENTRADAS = 300_000;
+    
+    private static final Map<String, String> TEXTOS = new ConcurrentHashMap<>(16_384);
+    
+    private TextosCanonicos() {
+    }
+    
+    /**
+     * Instância canônica igual a {@code texto}; o próprio {@code texto} na primeira ocorrência
+     */
+    public static String canonico(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String existente = TEXTOS.get(texto);
+        if (existente != null) {
+            return existente;
+        }
+        if (TEXTOS.size() >= MAXIMO_ENTRADAS) {
+            return texto;
+        }
+        existente = TEXTOS.putIfAbsent(texto, texto);
+        return existente != null ? existente : texto;
+    }
+    
+    public static int tamanho() {
+        return TEXTOS.size();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.api_cep.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.ViaCepResponseDTO;
+
+/**
+ * Dicas de reflexão para imagem nativa
+ * 
+ * Cobre os DTOs serializados fora dos retornos de controller (eventos SSE, fluxos NDJSON
+ * e o corpo da resposta do ViaCEP), que o processamento AOT não detecta sozinho.
+ */
+public class ApiCepRuntimeHints implements RuntimeHintsRegistrar {
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> tipo : new Class<?>[] {
+                EnderecoResponseDTO.class,
+                EnderecoResponseDTO.EnderecoResponseDTOBuilder.class,
+                AlteracoesResponseDTO.Alteracao.class,
+                ViaCepResponseDTO.class }) {
+            hints.reflection().registerType(tipo,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+    }
+}
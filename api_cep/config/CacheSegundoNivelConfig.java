@@ -0,0 +1,129 @@
+package com.example.api_cep.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.api_cep.entity.Endereco;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cache de segundo nível e de consultas do Hibernate, com Ehcache 3 via JCache
+ * 
+ * As regiões de entidades e de consultas são limitadas em número de entradas no heap e podem
+ * transbordar para memória off-heap ({@code api-cep.cache-hibernate.offheap-mb}, 0 desativa).
+ * A região de timestamps, que o Hibernate usa para invalidar consultas após escritas em
+ * tb_enderecos, fica somente no heap e nunca expira.
+ * 
+ * As regiões são locais a cada instância. As escritas das demais réplicas chegam pelo
+ * histórico de alterações (ver {@link com.example.api_cep.cache.InvalidacaoCacheHibernate}),
+ * com o atraso do acompanhamento; o TTL, curto, limita a vida de uma entrada que escape disso.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api-cep.cache-hibernate.habilitado", havingValue = "true", matchIfMissing = true)
+public class CacheSegundoNivelConfig {
+    
+    private static final String REGIAO_CONSULTAS_PADRAO = "default-query-results-region";
+    private static final String REGIAO_TIMESTAMPS = "default-update-timestamps-region";
+    
+    @Value("${api-cep.cache-hibernate.entradas-heap:50000}")
+    private long entradasHeap;
+    
+    @Value("${api-cep.cache-hibernate.offheap-mb:0}")
+    private long offheapMb;
+    
+    @Value("${api-cep.cache-hibernate.ttl-segundos:300}")
+    private long ttlSegundos;
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager(URI.create("api-cep-hibernate"), getClass().getClassLoader());
+        
+        for (String regiao : List.of(Endereco.REGIAO_CACHE, Endereco.REGIAO_CACHE_CONSULTAS, REGIAO_CONSULTAS_PADRAO)) {
+            ResourcePoolsBuilder recursos = ResourcePoolsBuilder.heap(entradasHeap);
+            if (offheapMb > 0) {
+                recursos = recursos.offheap(offheapMb, MemoryUnit.MB);
+            }
+            cacheManager.createCache(regiao, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, recursos)
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSegundos)))));
+        }
+        
+        // Timestamps não podem ser descartados antes dos resultados que protegem
+        cacheManager.createCache(REGIAO_TIMESTAMPS, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(1000))));
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager hibernateCacheManager) {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propriedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propriedades.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            propriedades.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+    
+    /**
+     * Acertos, faltas e gravações por região, e o total de consultas que chegaram ao banco
+     */
+    @Bean
+    public MeterBinder metricasCacheSegundoNivel(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String regiao : List.of(Endereco.REGIAO_CACHE, Endereco.REGIAO_CACHE_CONSULTAS)) {
+                FunctionCounter.builder("api_cep.cache_hibernate.acertos", estatisticas,
+                        e -> valor(e, regiao, CacheRegionStatistics::getHitCount))
+                        .tag("regiao", regiao).register(registry);
+                FunctionCounter.builder("api_cep.cache_hibernate.faltas", estatisticas,
+                        e -> valor(e, regiao, CacheRegionStatistics::getMissCount))
+                        .tag("regiao", regiao).register(registry);
+                FunctionCounter.builder("api_cep.cache_hibernate.gravacoes", estatisticas,
+                        e -> valor(e, regiao, CacheRegionStatistics::getPutCount))
+                        .tag("regiao", regiao).register(registry);
+                Gauge.builder("api_cep.cache_hibernate.elementos_heap", estatisticas,
+                        e -> valor(e, regiao, CacheRegionStatistics::getElementCountInMemory))
+                        .tag("regiao", regiao).register(registry);
+            }
+            FunctionCounter.builder("api_cep.cache_hibernate.consultas_banco", estatisticas, Statistics::getQueryExecutionCount)
+                    .description("Consultas JPQL executadas no banco (não atendidas pelo cache de consultas)")
+                    .register(registry);
+        };
+    }
+    
+    private static double valor(Statistics estatisticas, String regiao,
+                                ToLongFunction<CacheRegionStatistics> metrica) {
+        CacheRegionStatistics regiaoEstatisticas = estatisticas.getCacheRegionStatistics(regiao);
+        return regiaoEstatisticas != null ? Math.max(0, metrica.applyAsLong(regiaoEstatisticas)) : 0;
+    }
+}
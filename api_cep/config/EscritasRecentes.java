@@ -0,0 +1,76 @@
+package com.example.api_cep.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.api_cep.event.AlteracoesRegistradasEvent;
+import com.example.api_cep.event.EnderecoAlteradoEvent;
+
+/**
+ * CEPs alterados há menos que a janela de atraso tolerado da réplica
+ * 
+ * Consultas a esses CEPs são feitas no primário, para que uma gravação possa ser relida
+ * imediatamente mesmo que a réplica ainda não a tenha recebido. Valem as escritas desta
+ * instância e as das demais, vistas pelo histórico de alterações: sem isso, a leitura que
+ * segue a invalidação dos caches locais poderia buscar na réplica o estado anterior e
+ * guardá-lo de novo.
+ */
+@Component
+public class EscritasRecentes {
+    
+    private final Map<String, Long> expiracoes = new ConcurrentHashMap<>();
+    
+    private final boolean habilitado;
+    private final long janelaNanos;
+    
+    public EscritasRecentes(@Value("${api-cep.datasource.replica.habilitado:false}") boolean habilitado,
+                            @Value("${api-cep.datasource.replica.janela-leitura-primario-ms:5000}") long janelaMs) {
+        this.habilitado = habilitado;
+        this.janelaNanos = janelaMs * 1_000_000;
+    }
+    
+    /**
+     * Indica se o CEP deve ser lido no primário
+     */
+    public boolean isRecente(String cep) {
+        if (!habilitado) {
+            return false;
+        }
+        Long expiracao = expiracoes.get(cep);
+        return expiracao != null && expiracao - System.nanoTime() > 0;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarEndereco(EnderecoAlteradoEvent evento) {
+        if (habilitado) {
+            expiracoes.put(evento.getCep(), System.nanoTime() + janelaNanos);
+        }
+    }
+    
+    /**
+     * Marca os CEPs alterados por qualquer instância antes que os caches locais os descartem
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void aoRegistrarAlteracoes(AlteracoesRegistradasEvent evento) {
+        if (habilitado) {
+            long expiracao = System.nanoTime() + janelaNanos;
+            evento.getAlteracoes().forEach(alteracao -> expiracoes.put(alteracao.getCep(), expiracao));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${api-cep.datasource.replica.janela-leitura-primario-ms:5000}")
+    public void removerExpiradas() {
+        long agora = System.nanoTime();
+        expiracoes.values().removeIf(expiracao -> expiracao - agora <= 0);
+    }
+}
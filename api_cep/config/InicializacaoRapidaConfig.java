@@ -0,0 +1,54 @@
+package com.example.api_cep.config;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Perfil de inicialização rápida ({@code inicio-rapido}) para réplicas com autoescala agressiva
+ * 
+ * Adia a criação de beans que não participam do atendimento das consultas: a documentação
+ * OpenAPI (springdoc e {@link OpenApiConfig}) e a página inicial ({@link com.example.api_cep.controller.HomeController}).
+ * Eles passam a ser criados no primeiro acesso.
+ * 
+ * Combinações suportadas:
+ * <ul>
+ *   <li>AOT: gerar o jar com o perfil ativo no build (process-aot) e executar com {@code -Dspring.aot.enabled=true};
+ *       o perfil precisa estar ativo no build, pois as condições são avaliadas durante o processamento AOT</li>
+ *   <li>CDS: treinar com {@code -XX:ArchiveClassesAtExit=api-cep.jsa -Dspring.context.exit=onRefresh}
+ *       e executar com {@code -XX:SharedArchiveFile=api-cep.jsa}</li>
+ *   <li>Imagem nativa: as dicas de reflexão necessárias estão em {@link ApiCepRuntimeHints}</li>
+ * </ul>
+ */
+@Configuration
+@Profile("inicio-rapido")
+@ImportRuntimeHints(ApiCepRuntimeHints.class)
+public class InicializacaoRapidaConfig {
+    
+    private static final Set<String> BEANS_NAO_CRITICOS = Set.of("customOpenAPI", "openApiConfig", "homeController");
+    
+    private static final String PACOTE_SPRINGDOC = "org.springdoc";
+    
+    @Bean
+    public static BeanFactoryPostProcessor inicializacaoTardiaNaoCriticos() {
+        return beanFactory -> {
+            for (String nome : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definicao = beanFactory.getBeanDefinition(nome);
+                if (BEANS_NAO_CRITICOS.contains(nome) || isSpringdoc(nome, definicao)) {
+                    definicao.setLazyInit(true);
+                }
+            }
+        };
+    }
+    
+    private static boolean isSpringdoc(String nome, BeanDefinition definicao) {
+        return nome.startsWith(PACOTE_SPRINGDOC)
+                || (definicao.getBeanClassName() != null && definicao.getBeanClassName().startsWith(PACOTE_SPRINGDOC))
+                || (definicao.getFactoryBeanName() != null && definicao.getFactoryBeanName().startsWith(PACOTE_SPRINGDOC));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.api_cep.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.api_cep.web.LimitadorConcorrencia;
+import com.example.api_cep.web.LimitadorTaxaInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registra os limitadores na borda da API
+ * 
+ * O limite por cliente vem primeiro, para que um cliente abusivo seja recusado (429)
+ * sem ocupar vagas do limite de concorrência do servidor (503).
+ */
+@Configuration
+@RequiredArgsConstructor
+public class LimitesConfig implements WebMvcConfigurer {
+    
+    private final LimitadorTaxaInterceptor limitadorTaxa;
+    private final LimitadorConcorrencia limitadorConcorrencia;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(limitadorTaxa).addPathPatterns("/api/**").order(0);
+        registry.addInterceptor(limitadorConcorrencia).addPathPatterns("/api/**").order(1);
+    }
+}
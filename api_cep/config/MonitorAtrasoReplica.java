@@ -0,0 +1,57 @@
+package com.example.api_cep.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifica periodicamente se a réplica acompanha o primário, comparando a maior sequência
+ * do histórico de alterações nos dois bancos
+ * 
+ * A réplica é considerada em dia quando já contém tudo o que o primário tinha na verificação
+ * anterior, ou seja, quando o atraso é menor que o intervalo entre verificações.
+ */
+@Slf4j
+public class MonitorAtrasoReplica {
+    
+    private static final String SQL_MAIOR_SEQUENCIA = "SELECT COALESCE(MAX(sequencia), 0) FROM tb_enderecos_alteracoes";
+    
+    private final JdbcTemplate primario;
+    private final JdbcTemplate replica;
+    private final RoteamentoLeituraEscritaDataSource roteamento;
+    
+    private volatile long sequenciaPrimarioAnterior = -1;
+    private volatile long atrasoAlteracoes;
+    
+    public MonitorAtrasoReplica(DataSource primario, DataSource replica,
+                                RoteamentoLeituraEscritaDataSource roteamento, MeterRegistry meterRegistry) {
+        this.primario = new JdbcTemplate(primario);
+        this.replica = new JdbcTemplate(replica);
+        this.roteamento = roteamento;
+        
+        Gauge.builder("api_cep.datasource.replica.atraso_alteracoes", this, monitor -> monitor.atrasoAlteracoes)
+                .description("Alterações do primário ainda não visíveis na réplica").register(meterRegistry);
+        Gauge.builder("api_cep.datasource.replica.disponivel", roteamento, r -> r.isReplicaDisponivel() ? 1 : 0)
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${api-cep.datasource.replica.intervalo-verificacao-ms:2000}")
+    public void verificar() {
+        try {
+            long sequenciaReplica = replica.queryForObject(SQL_MAIOR_SEQUENCIA, Long.class);
+            long sequenciaPrimario = primario.queryForObject(SQL_MAIOR_SEQUENCIA, Long.class);
+            
+            atrasoAlteracoes = Math.max(0, sequenciaPrimario - sequenciaReplica);
+            roteamento.setReplicaDisponivel(sequenciaReplica >= sequenciaPrimarioAnterior);
+            sequenciaPrimarioAnterior = sequenciaPrimario;
+        } catch (RuntimeException e) {
+            log.debug("Falha ao verificar o atraso da réplica: {}", e.getMessage());
+            roteamento.setReplicaDisponivel(false);
+        }
+    }
+}
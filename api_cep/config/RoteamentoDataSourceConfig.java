@@ -0,0 +1,83 @@
+package com.example.api_cep.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Separa o tráfego de consultas em uma réplica de leitura com pool próprio
+ * 
+ * Habilitado por {@code api-cep.datasource.replica.habilitado=true}. O primário continua configurado
+ * em {@code spring.datasource.*}; a réplica usa {@code api-cep.datasource.replica.*} (url, username,
+ * password e {@code hikari.*}). Transações {@code readOnly} vão à réplica, as demais ao primário.
+ * 
+ * Para testar localmente com dois bancos H2 embarcados, aponte a réplica para outro banco em memória
+ * e crie o esquema nele pela própria URL, por exemplo
+ * {@code jdbc:h2:mem:cepdb-replica;INIT=RUNSCRIPT FROM 'classpath:schema-replica.sql'}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api-cep.datasource.replica.habilitado", havingValue = "true")
+public class RoteamentoDataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+    
+    /**
+     * Não é candidato a injeção para não competir com as propriedades do primário
+     */
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("api-cep.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+    
+    @Bean
+    @ConfigurationProperties("api-cep.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = replicaDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public RoteamentoLeituraEscritaDataSource roteamentoDataSource(@Qualifier("primarioDataSource") DataSource primario,
+                                                                  @Qualifier("replicaDataSource") DataSource replica,
+                                                                  MeterRegistry meterRegistry) {
+        return new RoteamentoLeituraEscritaDataSource(primario, replica, meterRegistry);
+    }
+    
+    @Bean
+    public MonitorAtrasoReplica monitorAtrasoReplica(@Qualifier("primarioDataSource") DataSource primario,
+                                                     @Qualifier("replicaDataSource") DataSource replica,
+                                                     RoteamentoLeituraEscritaDataSource roteamento,
+                                                     MeterRegistry meterRegistry) {
+        return new MonitorAtrasoReplica(primario, replica, roteamento, meterRegistry);
+    }
+    
+    /**
+     * DataSource usado por JPA e JdbcTemplate; adia a obtenção da conexão até o primeiro comando
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoLeituraEscritaDataSource roteamento) {
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.api_cep.config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DataSource que direciona transações somente leitura para a réplica e todo o resto para o primário
+ * 
+ * A decisão usa o flag {@code readOnly} da transação corrente, então precisa ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: a conexão física só é
+ * obtida no primeiro comando, quando o flag já foi publicado. Operações fora de transação vão ao primário.
+ * Enquanto a réplica estiver atrasada ou inacessível, as leituras também vão ao primário.
+ * Leituras que não toleram o atraso da réplica usam {@link #noPrimario}, sem deixar de ser somente leitura.
+ */
+@Slf4j
+public class RoteamentoLeituraEscritaDataSource extends AbstractRoutingDataSource {
+    
+    enum Destino { PRIMARIO, REPLICA }
+    
+    private static final ThreadLocal<Boolean> LEITURA_NO_PRIMARIO = new ThreadLocal<>();
+    
+    private final Counter leiturasPrimario;
+    private final Counter leiturasReplica;
+    
+    private volatile boolean replicaDisponivel = true;
+    
+    public RoteamentoLeituraEscritaDataSource(DataSource primario, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        
+        this.leiturasPrimario = Counter.builder("api_cep.datasource.roteamento")
+                .tag("destino", "primario").register(meterRegistry);
+        this.leiturasReplica = Counter.builder("api_cep.datasource.roteamento")
+                .tag("destino", "replica").register(meterRegistry);
+    }
+    
+    /**
+     * Executa a leitura no primário, mesmo em transação somente leitura
+     * 
+     * Vale para a conexão obtida dentro do bloco: deve envolver a transação inteira ou ser
+     * chamado antes do primeiro comando dela.
+     */
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        if (LEITURA_NO_PRIMARIO.get() != null) {
+            return leitura.get();
+        }
+        LEITURA_NO_PRIMARIO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            LEITURA_NO_PRIMARIO.remove();
+        }
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaDisponivel
+                && LEITURA_NO_PRIMARIO.get() == null) {
+            leiturasReplica.increment();
+            return Destino.REPLICA;
+        }
+        leiturasPrimario.increment();
+        return Destino.PRIMARIO;
+    }
+    
+    public boolean isReplicaDisponivel() {
+        return replicaDisponivel;
+    }
+    
+    void setReplicaDisponivel(boolean disponivel) {
+        if (disponivel != replicaDisponivel) {
+            log.warn(disponivel ? "Réplica de leitura disponível novamente"
+                    : "Réplica de leitura atrasada ou inacessível; leituras redirecionadas ao primário");
+        }
+        this.replicaDisponivel = disponivel;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.api_cep.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.text.ParseException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.api_cep.diagnostico.DiagnosticoService;
+import com.example.api_cep.dto.DiagnosticoStatusDTO;
+import com.example.api_cep.exception.AcessoNegadoException;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controller administrativo das gravações do Java Flight Recorder
+ * 
+ * Fica fora de /api para não passar pelos limitadores de taxa e concorrência: o diagnóstico
+ * precisa funcionar justamente quando a API está sobrecarregada. Todas as operações exigem o
+ * header {@value #HEADER_TOKEN} igual a {@code api-cep.diagnostico.token}; sem token configurado,
+ * o acesso é sempre negado.
+ */
+@RestController
+@RequestMapping("/admin/diagnostico")
+@RequiredArgsConstructor
+@Tag(name = "Diagnóstico", description = "Gravações JFR e requisições lentas (uso administrativo)")
+public class DiagnosticoController {
+    
+    private static final String HEADER_TOKEN = "X-Admin-Token";
+    
+    private final DiagnosticoService diagnosticoService;
+    
+    @Value("${api-cep.diagnostico.token:}")
+    private String token;
+    
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Estado das gravações e requisições lentas recentes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado retornado"),
+        @ApiResponse(responseCode = "403", description = "Token ausente ou inválido")
+    })
+    public ResponseEntity<DiagnosticoStatusDTO> status(
+            @RequestHeader(value = HEADER_TOKEN, required = false) String tokenInformado) {
+        
+        validarToken(tokenInformado);
+        return ResponseEntity.ok(diagnosticoService.status());
+    }
+    
+    @PostMapping(value = "/gravacao", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Iniciar gravação sob demanda",
+        description = "Inicia uma gravação JFR com a configuração \"profile\", encerrada automaticamente após a duração"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Gravação iniciada"),
+        @ApiResponse(responseCode = "400", description = "Duração inválida ou gravação já em andamento"),
+        @ApiResponse(responseCode = "403", description = "Token ausente ou inválido")
+    })
+    public ResponseEntity<DiagnosticoStatusDTO> iniciarGravacao(
+            @RequestHeader(value = HEADER_TOKEN, required = false) String tokenInformado,
+            
+            @Parameter(description = "Duração máxima da gravação, em segundos")
+            @RequestParam(defaultValue = "60") long duracaoSegundos,
+            
+            @Parameter(description = "Limiar dos eventos de etapa, em ms; 0 registra todas as etapas")
+            @RequestParam(defaultValue = "0") long limiarEtapaMs) throws IOException, ParseException {
+        
+        validarToken(tokenInformado);
+        return ResponseEntity.ok(diagnosticoService.iniciarGravacao(duracaoSegundos, limiarEtapaMs));
+    }
+    
+    @PostMapping(value = "/gravacao/parar", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Encerrar a gravação sob demanda e baixar o arquivo .jfr")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Arquivo .jfr da gravação"),
+        @ApiResponse(responseCode = "400", description = "Não há gravação sob demanda"),
+        @ApiResponse(responseCode = "403", description = "Token ausente ou inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> pararGravacao(
+            @RequestHeader(value = HEADER_TOKEN, required = false) String tokenInformado) throws IOException {
+        
+        validarToken(tokenInformado);
+        return arquivo(diagnosticoService.pararGravacao());
+    }
+    
+    @GetMapping(value = "/gravacao", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+        summary = "Baixar o conteúdo atual da gravação",
+        description = "Salva e transmite a gravação sob demanda em andamento ou, sem ela, a gravação contínua"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Arquivo .jfr"),
+        @ApiResponse(responseCode = "400", description = "Não há gravação ativa"),
+        @ApiResponse(responseCode = "403", description = "Token ausente ou inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> despejar(
+            @RequestHeader(value = HEADER_TOKEN, required = false) String tokenInformado) throws IOException {
+        
+        validarToken(tokenInformado);
+        return arquivo(diagnosticoService.despejar());
+    }
+    
+    /**
+     * Transmite o arquivo e só então o libera para a limpeza do diretório de diagnóstico
+     */
+    private ResponseEntity<StreamingResponseBody> arquivo(Path arquivo) throws IOException {
+        long tamanho;
+        try {
+            tamanho = Files.size(arquivo);
+        } catch (IOException e) {
+            diagnosticoService.liberarArquivo(arquivo);
+            throw e;
+        }
+        StreamingResponseBody corpo = saida -> {
+            try (InputStream entrada = Files.newInputStream(arquivo)) {
+                entrada.transferTo(saida);
+            } finally {
+                diagnosticoService.liberarArquivo(arquivo);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(tamanho)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo.getFileName() + "\"")
+                .body(corpo);
+    }
+    
+    private void validarToken(String tokenInformado) {
+        // Comparação em tempo constante, para não revelar o token pelo tempo de resposta
+        if (token.isBlank() || tokenInformado == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), tokenInformado.getBytes(StandardCharsets.UTF_8))) {
+            throw new AcessoNegadoException("Token de diagnóstico ausente ou inválido");
+        }
+    }
+}
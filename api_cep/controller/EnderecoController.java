@@ -4,7 +4,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,13 +14,31 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.api_cep.config.ContentNegotiationConfig;
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.dto.CandidatoEnderecoDTO;
+import com.example.api_cep.dto.ConsultaReversaLoteDTO;
 import com.example.api_cep.dto.EnderecoRequestDTO;
 import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.FaixaCepResponseDTO;
+import com.example.api_cep.dto.LoteRequestDTO;
+import com.example.api_cep.dto.ResultadoLoteDTO;
+import com.example.api_cep.dto.ResultadoReversoDTO;
+import com.example.api_cep.exception.VersaoDesatualizadaException;
+import com.example.api_cep.service.BuscaEnderecoService;
 import com.example.api_cep.service.EnderecoService;
+import com.example.api_cep.service.ExportacaoEnderecoService;
+import com.example.api_cep.service.HistoricoAlteracoesService;
+import com.example.api_cep.service.LoteEnderecoService;
+import com.example.api_cep.service.NotificacaoAlteracoesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -28,8 +48,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * Controller REST para gerenciamento de CEPs e endereços
+ *
+ * As consultas respondem em JSON por padrão e em CBOR ou Smile quando
+ * solicitado pelo header Accept.
  */
 @RestController
 @RequestMapping("/api/enderecos")
@@ -38,8 +64,22 @@ import lombok.RequiredArgsConstructor;
 public class EnderecoController {
     
     private final EnderecoService service;
+    private final BuscaEnderecoService buscaService;
+    private final ExportacaoEnderecoService exportacaoService;
+    private final LoteEnderecoService loteService;
+    private final HistoricoAlteracoesService historicoService;
+    private final NotificacaoAlteracoesService notificacaoService;
+    private final ObjectMapper objectMapper;
+    
+    private static final int LIMITE_MAXIMO_ALTERACOES = 1000;
+    private static final int LIMITE_MAXIMO_FAIXA = 5000;
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final String TEXT_CSV_VALUE = "text/csv";
     
-    @GetMapping("/cep/{cep}")
+    @GetMapping(value = "/cep/{cep}", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
     @Operation(
         summary = "Buscar endereço por CEP",
         description = "Retorna os dados completos de um endereço a partir do CEP informado (8 dígitos)"
@@ -47,17 +87,21 @@ public class EnderecoController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Endereço encontrado com sucesso"),
         @ApiResponse(responseCode = "404", description = "CEP não encontrado", content = @Content),
-        @ApiResponse(responseCode = "400", description = "CEP inválido", content = @Content)
+        @ApiResponse(responseCode = "400", description = "CEP inválido ou fora das faixas de CEP existentes", content = @Content)
     })
     public ResponseEntity<EnderecoResponseDTO> buscarPorCep(
             @Parameter(description = "CEP com 8 dígitos", example = "01310100")
             @PathVariable String cep) {
         
-        EnderecoResponseDTO response = service.buscarPorCep(cep);
-        return ResponseEntity.ok(response);
+        // A versão do ETag é conferida no banco, já que o cache de consultas é local a cada instância
+        EnderecoResponseDTO response = service.buscarPorCepVersaoAtual(cep);
+        // Com If-None-Match igual à versão atual, o Spring responde 304 sem corpo
+        return ResponseEntity.ok().eTag(etag(response)).body(response);
     }
     
-    @GetMapping("/logradouro")
+    @GetMapping(value = "/logradouro", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
     @Operation(
         summary = "Buscar endereços por logradouro",
         description = "Retorna uma lista paginada de endereços que contenham o logradouro informado"
@@ -70,6 +114,9 @@ public class EnderecoController {
             @Parameter(description = "Nome do logradouro (rua, avenida, etc.)", example = "Paulista")
             @RequestParam String logradouro,
             
+            @Parameter(description = "Sigla da UF; restringe a busca a um estado", example = "SP")
+            @RequestParam(required = false) String uf,
+            
             @Parameter(description = "Número da página (inicia em 0)")
             @RequestParam(defaultValue = "0") int page,
             
@@ -80,11 +127,13 @@ public class EnderecoController {
             @RequestParam(defaultValue = "logradouro") String sort) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort).ascending());
-        Page<EnderecoResponseDTO> response = service.buscarPorLogradouro(logradouro, pageable);
+        Page<EnderecoResponseDTO> response = service.buscarPorLogradouro(logradouro, uf, pageable);
         return ResponseEntity.ok(response);
     }
     
-    @GetMapping("/cidade")
+    @GetMapping(value = "/cidade", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
     @Operation(
         summary = "Buscar endereços por cidade",
         description = "Retorna uma lista paginada de todos os endereços de uma cidade específica"
@@ -97,6 +146,9 @@ public class EnderecoController {
             @Parameter(description = "Nome da cidade", example = "São Paulo")
             @RequestParam String cidade,
             
+            @Parameter(description = "Sigla da UF; restringe a busca a um estado", example = "SP")
+            @RequestParam(required = false) String uf,
+            
             @Parameter(description = "Número da página (inicia em 0)")
             @RequestParam(defaultValue = "0") int page,
             
@@ -107,10 +159,156 @@ public class EnderecoController {
             @RequestParam(defaultValue = "logradouro") String sort) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by(sort).ascending());
-        Page<EnderecoResponseDTO> response = service.buscarPorCidade(cidade, pageable);
+        Page<EnderecoResponseDTO> response = service.buscarPorCidade(cidade, uf, pageable);
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping(value = "/busca", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
+    @Operation(
+        summary = "Busca aproximada de endereços",
+        description = "Procura o texto em logradouro, bairro, cidade e UF tolerando erros de digitação, " +
+                      "acentos e abreviações. Retorna os endereços mais parecidos, do mais para o menos parecido"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Candidatos retornados com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Texto de busca muito curto ou muito longo (máximo de 200 caracteres e 10 palavras)", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Índice de busca ainda em construção", content = @Content)
+    })
+    public ResponseEntity<List<CandidatoEnderecoDTO>> buscarAproximado(
+            @Parameter(description = "Texto livre do endereço", example = "Av Paulsta Sao Paolo")
+            @RequestParam String texto,
+            
+            @Parameter(description = "Quantidade máxima de candidatos")
+            @RequestParam(defaultValue = "20") int limite) {
+        
+        int limiteAjustado = Math.max(1, Math.min(limite, LIMITE_MAXIMO_BUSCA));
+        return ResponseEntity.ok(buscaService.buscarAproximado(texto, limiteAjustado));
+    }
+    
+    @GetMapping(value = "/reverso", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
+    @Operation(
+        summary = "Buscar CEP por endereço",
+        description = "Interpreta um endereço em texto livre (logradouro, número, bairro, cidade e UF) e retorna " +
+                      "os endereços correspondentes. Com o número informado, usa as faixas de numeração do logradouro"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busca realizada; a lista de endereços pode vir vazia"),
+        @ApiResponse(responseCode = "503", description = "Índice de busca reversa ainda em construção", content = @Content)
+    })
+    public ResponseEntity<ResultadoReversoDTO> resolverEndereco(
+            @Parameter(description = "Endereço em texto livre", example = "Av. Paulista, 1578 - Bela Vista, São Paulo - SP")
+            @RequestParam String texto) {
+        
+        return ResponseEntity.ok(buscaService.resolverEndereco(texto));
+    }
+    
+    @PostMapping(value = "/reverso", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
+    @Operation(
+        summary = "Buscar CEPs por endereço em lote",
+        description = "Busca reversa de até 1000 endereços em uma única requisição; os resultados seguem a ordem enviada"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busca realizada"),
+        @ApiResponse(responseCode = "400", description = "Lista vazia, grande demais ou com endereços em branco", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Índice de busca reversa ainda em construção", content = @Content)
+    })
+    public ResponseEntity<List<ResultadoReversoDTO>> resolverEnderecos(
+            @Parameter(description = "Endereços em texto livre")
+            @Valid @RequestBody ConsultaReversaLoteDTO request) {
+        
+        return ResponseEntity.ok(buscaService.resolverEnderecos(request.getEnderecos()));
+    }
+    
+    @GetMapping(value = "/faixa", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
+    @Operation(
+        summary = "Buscar endereços por faixa ou prefixo de CEP",
+        description = "Retorna os endereços da faixa em ordem de CEP. Para continuar, envie o proximoCursor " +
+                      "da resposta em cursor; a faixa terminou quando proximoCursor não vier preenchido"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Endereços da faixa retornados com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Faixa ou prefixo inválido", content = @Content)
+    })
+    public ResponseEntity<FaixaCepResponseDTO> buscarPorFaixa(
+            @Parameter(description = "CEP inicial (inclusivo)", example = "01000000")
+            @RequestParam(required = false) String inicio,
+            
+            @Parameter(description = "CEP final (inclusivo)", example = "01599999")
+            @RequestParam(required = false) String fim,
+            
+            @Parameter(description = "Prefixo de CEP; alternativa a inicio/fim", example = "01310")
+            @RequestParam(required = false) String prefixo,
+            
+            @Parameter(description = "Último CEP recebido na página anterior")
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Quantidade máxima de endereços por página")
+            @RequestParam(defaultValue = "1000") int limite) {
+        
+        String[] faixa = service.resolverFaixa(inicio, fim, prefixo);
+        int limiteAjustado = Math.max(1, Math.min(limite, LIMITE_MAXIMO_FAIXA));
+        FaixaCepResponseDTO response = service.buscarPorFaixa(faixa[0], faixa[1], cursor, limiteAjustado);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping(value = "/faixa", produces = APPLICATION_NDJSON_VALUE)
+    @Operation(
+        summary = "Exportar faixa de CEP em fluxo contínuo",
+        description = "Transmite todos os endereços da faixa em ordem de CEP, um JSON por linha, em uma única resposta"
+    )
+    public ResponseEntity<StreamingResponseBody> transmitirFaixa(
+            @RequestParam(required = false) String inicio,
+            @RequestParam(required = false) String fim,
+            @RequestParam(required = false) String prefixo,
+            @RequestParam(required = false) String cursor) {
+        
+        String[] faixa = service.resolverFaixa(inicio, fim, prefixo);
+        StreamingResponseBody corpo = saida -> {
+            String apos = cursor;
+            do {
+                FaixaCepResponseDTO pagina = service.buscarPorFaixa(faixa[0], faixa[1], apos, LIMITE_MAXIMO_FAIXA);
+                for (EnderecoResponseDTO endereco : pagina.getEnderecos()) {
+                    saida.write(objectMapper.writeValueAsBytes(endereco));
+                    saida.write('\n');
+                }
+                saida.flush();
+                apos = pagina.getProximoCursor();
+            } while (apos != null);
+        };
+        return ResponseEntity.ok().contentType(MediaType.valueOf(APPLICATION_NDJSON_VALUE)).body(corpo);
+    }
+    
+    @GetMapping(value = "/exportacao", produces = TEXT_CSV_VALUE)
+    @Operation(
+        summary = "Exportar todos os endereços em CSV",
+        description = "Transmite a tabela inteira de endereços, ou somente os de uma UF, em CSV com cabeçalho. " +
+                      "As linhas são lidas por cursor e enviadas à medida que chegam do banco"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+        @ApiResponse(responseCode = "400", description = "UF inválida", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Sigla da UF para filtrar a exportação", example = "SP")
+            @RequestParam(required = false) String uf) {
+        
+        String ufValidada = exportacaoService.validarUf(uf);
+        String arquivo = "enderecos" + (ufValidada != null ? "-" + ufValidada.toLowerCase() : "") + ".csv";
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarCsv(ufValidada, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf(TEXT_CSV_VALUE + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                .body(corpo);
+    }
+    
     @PostMapping
     @Operation(
         summary = "Criar novo endereço",
@@ -132,23 +330,28 @@ public class EnderecoController {
     @PutMapping("/{cep}")
     @Operation(
         summary = "Atualizar endereço existente",
-        description = "Atualiza os dados de um endereço já cadastrado no sistema"
+        description = "Atualiza os dados de um endereço já cadastrado no sistema. Envie em If-Match o ETag " +
+                      "recebido na consulta para que a atualização só ocorra se o endereço não mudou desde então"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Endereço atualizado com sucesso"),
         @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
         @ApiResponse(responseCode = "404", description = "CEP não encontrado", content = @Content),
-        @ApiResponse(responseCode = "409", description = "Novo CEP já cadastrado", content = @Content)
+        @ApiResponse(responseCode = "409", description = "Novo CEP já cadastrado", content = @Content),
+        @ApiResponse(responseCode = "412", description = "Endereço alterado desde a versão informada", content = @Content)
     })
     public ResponseEntity<EnderecoResponseDTO> atualizar(
             @Parameter(description = "CEP do endereço a ser atualizado", example = "01310100")
             @PathVariable String cep,
             
+            @Parameter(description = "ETag da versão em que a alteração se baseia", example = "\"3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            
             @Parameter(description = "Novos dados do endereço")
             @Valid @RequestBody EnderecoRequestDTO request) {
         
-        EnderecoResponseDTO response = service.atualizar(cep, request);
-        return ResponseEntity.ok(response);
+        EnderecoResponseDTO response = service.atualizar(cep, request, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(etag(response)).body(response);
     }
     
     @DeleteMapping("/{cep}")
@@ -168,7 +371,92 @@ public class EnderecoController {
         return ResponseEntity.noContent().build();
     }
 
-    @GetMapping
+    @PostMapping("/lote")
+    @Operation(
+        summary = "Aplicar lote de operações",
+        description = "Cria, atualiza e remove endereços em lote, retornando o resultado de cada operação. " +
+                      "O modo de falha define se erros desfazem o lote inteiro, apenas o bloco afetado ou apenas o item"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote processado; consulte o status de cada item"),
+        @ApiResponse(responseCode = "400", description = "Lote vazio, grande demais ou malformado", content = @Content)
+    })
+    public ResponseEntity<ResultadoLoteDTO> processarLote(
+            @Parameter(description = "Operações do lote e modo de tratamento de falhas")
+            @Valid @RequestBody LoteRequestDTO request) {
+        
+        ResultadoLoteDTO response = loteService.processar(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/alteracoes", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
+    @Operation(
+        summary = "Listar alterações desde um token",
+        description = "Retorna as criações, atualizações e remoções (tombstones) ocorridas após o token informado, " +
+                      "em ordem de sequência. Use o proximoToken da resposta na chamada seguinte"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alterações retornadas com sucesso"),
+        @ApiResponse(responseCode = "410", description = "Token anterior ao histórico retido; refaça a carga completa", content = @Content)
+    })
+    public ResponseEntity<AlteracoesResponseDTO> listarAlteracoes(
+            @Parameter(description = "Token recebido na última sincronização (0 para o início do histórico)")
+            @RequestParam(defaultValue = "0") long desde,
+            
+            @Parameter(description = "Quantidade máxima de alterações por chamada")
+            @RequestParam(defaultValue = "500") int limite) {
+        
+        int limiteAjustado = Math.max(1, Math.min(limite, LIMITE_MAXIMO_ALTERACOES));
+        AlteracoesResponseDTO response = historicoService.buscarDesde(desde, limiteAjustado);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/alteracoes/token")
+    @Operation(
+        summary = "Obter token atual de sincronização",
+        description = "Retorna o token mais recente do histórico. Obtenha-o antes de uma carga completa " +
+                      "e use-o como ponto de partida das sincronizações incrementais"
+    )
+    @ApiResponse(responseCode = "200", description = "Token retornado com sucesso")
+    public ResponseEntity<Long> tokenAtual() {
+        return ResponseEntity.ok(historicoService.tokenAtual());
+    }
+
+    @GetMapping(value = "/alteracoes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Assinar alterações em tempo real",
+        description = "Abre um fluxo Server-Sent Events com as alterações confirmadas, filtrável por UF e faixa de CEP. " +
+                      "O id de cada evento é a sequência do histórico; reconecte com Last-Event-ID para retomar"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fluxo de alterações aberto"),
+        @ApiResponse(responseCode = "503", description = "Limite de assinantes atingido", content = @Content)
+    })
+    public SseEmitter assinarAlteracoes(
+            @Parameter(description = "UFs de interesse", example = "SP,RJ")
+            @RequestParam(required = false) Set<String> uf,
+            
+            @Parameter(description = "CEP inicial da faixa (inclusivo)", example = "01000000")
+            @RequestParam(required = false) String cepInicial,
+            
+            @Parameter(description = "CEP final da faixa (inclusivo)", example = "01599999")
+            @RequestParam(required = false) String cepFinal,
+            
+            @Parameter(description = "Sequência a partir da qual retomar; alternativa ao header Last-Event-ID")
+            @RequestParam(required = false) Long desde,
+            
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoId) {
+        
+        Long retomarDe = ultimoEventoId != null ? ultimoEventoId : desde;
+        return notificacaoService.assinar(new NotificacaoAlteracoesService.Filtro(uf, cepInicial, cepFinal), retomarDe);
+    }
+
+    @GetMapping(produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE
+    })
     @Operation(
         summary = "Listar todos os endereços",
         description = "Retorna uma lista paginada de todos os endereços cadastrados"
@@ -191,4 +479,29 @@ public class EnderecoController {
         Page<EnderecoResponseDTO> response = service.buscarTodos(pageable);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    private static String etag(EnderecoResponseDTO endereco) {
+        return endereco.getVersao() != null ? "\"" + endereco.getVersao() + "\"" : null;
+    }
+    
+    /**
+     * Versão esperada a partir do If-Match; {@code null} quando ausente ou "*" (basta o endereço existir)
+     * 
+     * @throws VersaoDesatualizadaException se o valor não for um ETag emitido por esta API
+     */
+    private static Long versaoDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.strip();
+        // If-Match usa comparação forte: ETags fracos nunca conferem
+        if (valor.length() < 3 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new VersaoDesatualizadaException("If-Match não corresponde a nenhuma versão do endereço: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new VersaoDesatualizadaException("If-Match não corresponde a nenhuma versão do endereço: " + ifMatch);
+        }
+    }
+}
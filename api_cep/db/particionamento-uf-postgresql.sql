@@ -0,0 +1,86 @@
+-- Particionamento de tb_enderecos por UF (PostgreSQL 13+)
+--
+-- A tabela é particionada por lista de UF: consultas que filtram por uf (as variantes
+-- findByUf... de EnderecoRepository, a busca por CEP, que deriva a UF da faixa do CEP, e a
+-- exportação por UF) leem somente a partição da UF. Cada partição tem seus próprios índices,
+-- VACUUM e ANALYZE, e pode ser recarregada isoladamente (ver o fim do arquivo).
+--
+-- Em chaves únicas de tabela particionada a chave de partição é obrigatória, então UNIQUE (cep, uf)
+-- só impede CEPs duplicados dentro de uma UF. Ela equivale a UNIQUE (cep) enquanto toda linha for
+-- gravada na UF da faixa do CEP: a aplicação exige isso nas escritas da API e do lote, grava os
+-- endereços do ViaCEP com a UF da faixa e descarta os da pré-carga cuja UF diverge. Cargas feitas
+-- fora da aplicação (COPY, abaixo) devem seguir a mesma regra. CEPs duplicados por linhas antigas
+-- gravadas com outra UF aparecem em:
+--
+--   SELECT cep, COUNT(*) FROM tb_enderecos GROUP BY cep HAVING COUNT(*) > 1;
+--
+-- O nome uk_enderecos_cep é mantido para que a violação continue sendo reconhecida como CEP duplicado.
+--
+-- Executar com spring.jpa.hibernate.ddl-auto=validate (ou none), antes de subir a aplicação.
+
+CREATE TABLE tb_enderecos (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    cep         VARCHAR(8)   NOT NULL,
+    logradouro  VARCHAR(255) NOT NULL,
+    complemento VARCHAR(100),
+    bairro      VARCHAR(100) NOT NULL,
+    cidade      VARCHAR(100) NOT NULL,
+    uf          VARCHAR(2)   NOT NULL,
+    ibge        VARCHAR(20),
+    gia         VARCHAR(20),
+    ddd         VARCHAR(3),
+    siafi       VARCHAR(10),
+    created_at  TIMESTAMP    NOT NULL,
+    updated_at  TIMESTAMP,
+    versao      BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT pk_enderecos PRIMARY KEY (id, uf),
+    CONSTRAINT uk_enderecos_cep UNIQUE (cep, uf)
+) PARTITION BY LIST (uf);
+
+CREATE TABLE tb_enderecos_ac PARTITION OF tb_enderecos FOR VALUES IN ('AC');
+CREATE TABLE tb_enderecos_al PARTITION OF tb_enderecos FOR VALUES IN ('AL');
+CREATE TABLE tb_enderecos_ap PARTITION OF tb_enderecos FOR VALUES IN ('AP');
+CREATE TABLE tb_enderecos_am PARTITION OF tb_enderecos FOR VALUES IN ('AM');
+CREATE TABLE tb_enderecos_ba PARTITION OF tb_enderecos FOR VALUES IN ('BA');
+CREATE TABLE tb_enderecos_ce PARTITION OF tb_enderecos FOR VALUES IN ('CE');
+CREATE TABLE tb_enderecos_df PARTITION OF tb_enderecos FOR VALUES IN ('DF');
+CREATE TABLE tb_enderecos_es PARTITION OF tb_enderecos FOR VALUES IN ('ES');
+CREATE TABLE tb_enderecos_go PARTITION OF tb_enderecos FOR VALUES IN ('GO');
+CREATE TABLE tb_enderecos_ma PARTITION OF tb_enderecos FOR VALUES IN ('MA');
+CREATE TABLE tb_enderecos_mt PARTITION OF tb_enderecos FOR VALUES IN ('MT');
+CREATE TABLE tb_enderecos_ms PARTITION OF tb_enderecos FOR VALUES IN ('MS');
+CREATE TABLE tb_enderecos_mg PARTITION OF tb_enderecos FOR VALUES IN ('MG');
+CREATE TABLE tb_enderecos_pa PARTITION OF tb_enderecos FOR VALUES IN ('PA');
+CREATE TABLE tb_enderecos_pb PARTITION OF tb_enderecos FOR VALUES IN ('PB');
+CREATE TABLE tb_enderecos_pr PARTITION OF tb_enderecos FOR VALUES IN ('PR');
+CREATE TABLE tb_enderecos_pe PARTITION OF tb_enderecos FOR VALUES IN ('PE');
+CREATE TABLE tb_enderecos_pi PARTITION OF tb_enderecos FOR VALUES IN ('PI');
+CREATE TABLE tb_enderecos_rj PARTITION OF tb_enderecos FOR VALUES IN ('RJ');
+CREATE TABLE tb_enderecos_rn PARTITION OF tb_enderecos FOR VALUES IN ('RN');
+CREATE TABLE tb_enderecos_rs PARTITION OF tb_enderecos FOR VALUES IN ('RS');
+CREATE TABLE tb_enderecos_ro PARTITION OF tb_enderecos FOR VALUES IN ('RO');
+CREATE TABLE tb_enderecos_rr PARTITION OF tb_enderecos FOR VALUES IN ('RR');
+CREATE TABLE tb_enderecos_sc PARTITION OF tb_enderecos FOR VALUES IN ('SC');
+CREATE TABLE tb_enderecos_sp PARTITION OF tb_enderecos FOR VALUES IN ('SP');
+CREATE TABLE tb_enderecos_se PARTITION OF tb_enderecos FOR VALUES IN ('SE');
+CREATE TABLE tb_enderecos_to PARTITION OF tb_enderecos FOR VALUES IN ('TO');
+
+-- Índices definidos na tabela-mãe são criados em cada partição
+CREATE INDEX idx_cep ON tb_enderecos (cep);
+CREATE INDEX idx_cidade ON tb_enderecos (cidade);
+CREATE INDEX idx_uf_cidade ON tb_enderecos (uf, cidade);
+CREATE INDEX idx_enderecos_cidade_lower ON tb_enderecos (LOWER(cidade));
+
+-- Recarga de uma UF sem afetar as demais (exemplo: SP)
+--
+--   ALTER TABLE tb_enderecos DETACH PARTITION tb_enderecos_sp CONCURRENTLY;
+--   TRUNCATE tb_enderecos_sp;
+--   COPY tb_enderecos_sp (cep, logradouro, complemento, bairro, cidade, uf, ibge, gia, ddd, siafi, created_at)
+--        FROM '/caminho/enderecos-sp.csv' WITH (FORMAT csv, HEADER true);
+--   VACUUM ANALYZE tb_enderecos_sp;
+--   ALTER TABLE tb_enderecos ATTACH PARTITION tb_enderecos_sp FOR VALUES IN ('SP');
+--
+-- Enquanto desanexada, consultas de SP não encontram endereços e caem no ViaCEP; para recargas
+-- sem essa janela, carregar em uma tabela nova (CREATE TABLE ... (LIKE tb_enderecos_sp INCLUDING ALL)
+-- com CHECK (uf = 'SP'), que torna o ATTACH instantâneo) e trocar a partição em uma transação.
+-- Após a recarga, reconstruir os índices em memória (filtro de Bloom e buscas) ou aguardar o cron.
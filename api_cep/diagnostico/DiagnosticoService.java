@@ -0,0 +1,326 @@
+package com.example.api_cep.diagnostico;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.api_cep.dto.DiagnosticoStatusDTO;
+import com.example.api_cep.dto.RequisicaoLentaDTO;
+import com.example.api_cep.exception.ConsultaInvalidaException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gravações do Java Flight Recorder para diagnóstico em produção, sem profiler externo
+ * 
+ * Mantém uma gravação contínua limitada em idade e tamanho (configuração "default" do JDK,
+ * com overhead na casa de 1%) e permite abrir uma gravação sob demanda, com limiares menores,
+ * por tempo limitado. Requisições acima do limiar de lentidão são guardadas como exemplos e,
+ * no máximo uma vez por intervalo, disparam o despejo da gravação contínua em arquivo, fora
+ * da thread da requisição.
+ */
+@Service
+@Slf4j
+public class DiagnosticoService {
+    
+    private static final int MAXIMO_EXEMPLOS = 50;
+    private static final DateTimeFormatter FORMATO_ARQUIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    @Value("${api-cep.diagnostico.gravacao-continua.habilitada:true}")
+    private boolean continuaHabilitada;
+    
+    @Value("${api-cep.diagnostico.gravacao-continua.idade-maxima-min:30}")
+    private long idadeMaximaMin;
+    
+    @Value("${api-cep.diagnostico.gravacao-continua.tamanho-maximo-mb:100}")
+    private long tamanhoMaximoMb;
+    
+    @Value("${api-cep.diagnostico.limiar-etapa-ms:10}")
+    private long limiarEtapaMs;
+    
+    @Value("${api-cep.diagnostico.limiar-lento-ms:1000}")
+    private long limiarLentoMs;
+    
+    @Value("${api-cep.diagnostico.despejo-automatico.habilitado:true}")
+    private boolean despejoAutomatico;
+    
+    @Value("${api-cep.diagnostico.despejo-automatico.intervalo-min:15}")
+    private long intervaloDespejoMin;
+    
+    @Value("${api-cep.diagnostico.diretorio:./diagnostico}")
+    private String diretorio;
+    
+    @Value("${api-cep.diagnostico.maximo-arquivos:10}")
+    private int maximoArquivos;
+    
+    @Value("${api-cep.diagnostico.sob-demanda.duracao-maxima-s:600}")
+    private long duracaoMaximaSegundos;
+    
+    private final Deque<RequisicaoLentaDTO> exemplos = new ArrayDeque<>();
+    /** Arquivos entregues para download e ainda não transmitidos; a limpeza do diretório não os remove */
+    private final Set<Path> emTransmissao = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sequenciaArquivos = new AtomicInteger();
+    private final AtomicLong ultimoDespejoNanos = new AtomicLong(System.nanoTime() - Duration.ofDays(1).toNanos());
+    private final ExecutorService despejos = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "diagnostico-despejo");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter requisicoesLentas;
+    
+    private volatile Recording continua;
+    private volatile Recording sobDemanda;
+    
+    public DiagnosticoService(MeterRegistry meterRegistry) {
+        this.requisicoesLentas = Counter.builder("api_cep.diagnostico.requisicoes_lentas")
+                .description("Requisições acima do limiar de lentidão").register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarGravacaoContinua() {
+        if (!continuaHabilitada) {
+            return;
+        }
+        try {
+            Recording gravacao = new Recording(Configuration.getConfiguration("default"));
+            gravacao.setName("api-cep-continua");
+            gravacao.setToDisk(true);
+            gravacao.setMaxAge(Duration.ofMinutes(idadeMaximaMin));
+            gravacao.setMaxSize(tamanhoMaximoMb * 1024 * 1024);
+            habilitarEventos(gravacao, Duration.ofMillis(limiarEtapaMs));
+            gravacao.start();
+            continua = gravacao;
+            log.info("Gravação JFR contínua iniciada: até {} min / {} MB", idadeMaximaMin, tamanhoMaximoMb);
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.warn("Não foi possível iniciar a gravação JFR contínua: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Limiar a partir do qual uma requisição é considerada lenta
+     */
+    public long limiarLentoNanos() {
+        return limiarLentoMs * 1_000_000;
+    }
+    
+    /**
+     * Guarda o exemplo de requisição lenta e, se permitido, agenda o despejo da gravação contínua
+     */
+    public void registrarRequisicaoLenta(String metodo, String caminho, int status, String resultado, long latenciaNanos) {
+        requisicoesLentas.increment();
+        String arquivo = null;
+        long agora = System.nanoTime();
+        long ultimo = ultimoDespejoNanos.get();
+        if (despejoAutomatico && continua != null
+                && agora - ultimo >= Duration.ofMinutes(intervaloDespejoMin).toNanos()
+                && ultimoDespejoNanos.compareAndSet(ultimo, agora)) {
+            Path destino = novoArquivo("lenta");
+            arquivo = destino.toString();
+            try {
+                despejos.execute(() -> despejarContinua(destino));
+            } catch (RejectedExecutionException e) {
+                arquivo = null;
+            }
+        }
+        
+        RequisicaoLentaDTO exemplo = RequisicaoLentaDTO.builder()
+                .ocorridaEm(LocalDateTime.now())
+                .metodo(metodo)
+                .caminho(caminho)
+                .status(status)
+                .resultado(resultado)
+                .latenciaMs(latenciaNanos / 1_000_000.0)
+                .arquivo(arquivo)
+                .build();
+        synchronized (exemplos) {
+            exemplos.addFirst(exemplo);
+            if (exemplos.size() > MAXIMO_EXEMPLOS) {
+                exemplos.removeLast();
+            }
+        }
+    }
+    
+    /**
+     * Inicia uma gravação sob demanda, encerrada automaticamente após a duração informada
+     * 
+     * @param limiarEtapa limiar dos eventos de etapa; zero registra todas as etapas
+     */
+    public synchronized DiagnosticoStatusDTO iniciarGravacao(long duracaoSegundos, long limiarEtapa) throws IOException, ParseException {
+        if (sobDemanda != null && sobDemanda.getState() == RecordingState.RUNNING) {
+            throw new ConsultaInvalidaException("Já existe uma gravação sob demanda em andamento");
+        }
+        if (duracaoSegundos < 1 || duracaoSegundos > duracaoMaximaSegundos) {
+            throw new ConsultaInvalidaException("A duração deve estar entre 1 e " + duracaoMaximaSegundos + " segundos");
+        }
+        fecharSobDemanda();
+        
+        Recording gravacao = new Recording(Configuration.getConfiguration("profile"));
+        gravacao.setName("api-cep-sob-demanda");
+        gravacao.setToDisk(true);
+        gravacao.setDuration(Duration.ofSeconds(duracaoSegundos));
+        gravacao.setMaxSize(tamanhoMaximoMb * 1024 * 1024);
+        habilitarEventos(gravacao, Duration.ofMillis(Math.max(0, limiarEtapa)));
+        gravacao.start();
+        sobDemanda = gravacao;
+        log.info("Gravação JFR sob demanda iniciada por {} s (limiar de etapa: {} ms)", duracaoSegundos, limiarEtapa);
+        return status();
+    }
+    
+    /**
+     * Encerra a gravação sob demanda e grava o conteúdo em arquivo
+     * 
+     * @return o arquivo .jfr gerado, protegido da limpeza até {@link #liberarArquivo}
+     */
+    public synchronized Path pararGravacao() throws IOException {
+        Recording gravacao = sobDemanda;
+        if (gravacao == null) {
+            throw new ConsultaInvalidaException("Não há gravação sob demanda para encerrar");
+        }
+        Path destino = novoArquivo("sob-demanda");
+        if (gravacao.getState() == RecordingState.RUNNING) {
+            gravacao.stop();
+        }
+        gravacao.dump(destino);
+        emTransmissao.add(destino);
+        fecharSobDemanda();
+        removerExcedentes();
+        log.info("Gravação JFR sob demanda encerrada: {}", destino);
+        return destino;
+    }
+    
+    /**
+     * Grava em arquivo o conteúdo atual da gravação sob demanda, ou da contínua se não houver outra
+     * 
+     * @return o arquivo .jfr gerado, protegido da limpeza até {@link #liberarArquivo}
+     */
+    public synchronized Path despejar() throws IOException {
+        Recording gravacao = sobDemanda != null ? sobDemanda : continua;
+        if (gravacao == null) {
+            throw new ConsultaInvalidaException("Não há gravação JFR ativa");
+        }
+        Path destino = novoArquivo(gravacao == continua ? "continua" : "sob-demanda");
+        gravacao.dump(destino);
+        emTransmissao.add(destino);
+        removerExcedentes();
+        return destino;
+    }
+    
+    /**
+     * Devolve à limpeza do diretório um arquivo cuja transmissão terminou
+     */
+    public void liberarArquivo(Path arquivo) {
+        emTransmissao.remove(arquivo);
+        removerExcedentes();
+    }
+    
+    public DiagnosticoStatusDTO status() {
+        Recording gravacao = sobDemanda;
+        List<RequisicaoLentaDTO> recentes;
+        synchronized (exemplos) {
+            recentes = List.copyOf(exemplos);
+        }
+        return DiagnosticoStatusDTO.builder()
+                .gravacaoContinua(continua != null && continua.getState() == RecordingState.RUNNING)
+                .gravacaoSobDemanda(gravacao != null ? gravacao.getState().name() : null)
+                .limiarLentoMs(limiarLentoMs)
+                .requisicoesLentas(recentes)
+                .build();
+    }
+    
+    @PreDestroy
+    void encerrar() {
+        despejos.shutdownNow();
+        fecharSobDemanda();
+        if (continua != null) {
+            continua.close();
+        }
+    }
+    
+    private void despejarContinua(Path destino) {
+        try {
+            continua.dump(destino);
+            removerExcedentes();
+            log.warn("Requisição lenta detectada; gravação JFR salva em {}", destino);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível salvar a gravação JFR em {}: {}", destino, e.getMessage());
+        }
+    }
+    
+    private void habilitarEventos(Recording gravacao, Duration limiarEtapa) {
+        gravacao.enable(EtapaEnderecoEvent.class).withThreshold(limiarEtapa).withoutStackTrace();
+        gravacao.enable(RequisicaoLentaEvent.class).withoutStackTrace();
+    }
+    
+    private void fecharSobDemanda() {
+        if (sobDemanda != null) {
+            sobDemanda.close();
+            sobDemanda = null;
+        }
+    }
+    
+    private Path novoArquivo(String tipo) {
+        try {
+            Path pasta = Files.createDirectories(Path.of(diretorio));
+            return pasta.resolve("api-cep-" + tipo + "-" + LocalDateTime.now().format(FORMATO_ARQUIVO)
+                    + "-" + sequenciaArquivos.incrementAndGet() + ".jfr");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Mantém somente os {@code maximoArquivos} arquivos .jfr mais recentes no diretório,
+     * preservando os que ainda estão sendo transmitidos
+     */
+    private void removerExcedentes() {
+        try (Stream<Path> arquivos = Files.list(Path.of(diretorio))) {
+            List<Path> jfr = arquivos
+                    .filter(arquivo -> arquivo.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(DiagnosticoService::modificadoEm).reversed())
+                    .toList();
+            for (Path antigo : jfr.subList(Math.min(maximoArquivos, jfr.size()), jfr.size())) {
+                if (!emTransmissao.contains(antigo)) {
+                    Files.deleteIfExists(antigo);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Não foi possível limpar o diretório de diagnóstico: {}", e.getMessage());
+        }
+    }
+    
+    private static long modificadoEm(Path arquivo) {
+        try {
+            return Files.getLastModifiedTime(arquivo).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.api_cep.diagnostico;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de uma etapa de consulta ou escrita de endereço (cache, banco, ViaCEP, gravação)
+ * 
+ * Com o evento desabilitado ou abaixo do limiar, o custo é só o de medir o tempo.
+ * Esperas por conexão do Hikari aparecem como jdk.ThreadPark na mesma thread, dentro do
+ * intervalo da etapa "banco" ou "gravacao".
+ */
+@Name("com.example.api_cep.EtapaEndereco")
+@Label("Etapa de endereço")
+@Category({"API CEP", "Endereços"})
+@Description("Duração e resultado de uma etapa de consulta ou escrita de endereço")
+@Threshold("10 ms")
+@StackTrace(false)
+public class EtapaEnderecoEvent extends Event {
+    
+    public static final String CACHE = "cache";
+    public static final String BANCO = "banco";
+    public static final String VIACEP = "viacep";
+    public static final String GRAVACAO = "gravacao";
+    
+    @Label("Etapa")
+    String etapa;
+    
+    @Label("CEP")
+    String cep;
+    
+    @Label("Resultado")
+    @Description("ok, vazio ou o nome da exceção lançada")
+    String resultado;
+    
+    /**
+     * Executa a ação registrando a etapa; o resultado é "vazio" para {@code null} ou Optional vazio
+     */
+    public static <T> T medir(String etapa, String cep, Supplier<T> acao) {
+        EtapaEnderecoEvent evento = new EtapaEnderecoEvent();
+        evento.begin();
+        try {
+            T valor = acao.get();
+            evento.resultado = valor == null || (valor instanceof Optional<?> opcional && opcional.isEmpty()) ? "vazio" : "ok";
+            return valor;
+        } catch (RuntimeException e) {
+            evento.resultado = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.etapa = etapa;
+                evento.cep = cep;
+                evento.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.api_cep.diagnostico;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma requisição à API acima do limiar de lentidão; as etapas e demais eventos da
+ * mesma thread nesse intervalo mostram para onde foi o tempo
+ */
+@Name("com.example.api_cep.RequisicaoLenta")
+@Label("Requisição lenta")
+@Category({"API CEP", "Requisições"})
+@Description("Requisição HTTP que excedeu api-cep.diagnostico.limiar-lento-ms")
+@StackTrace(false)
+public class RequisicaoLentaEvent extends Event {
+    
+    @Label("Método")
+    String metodo;
+    
+    @Label("Caminho")
+    String caminho;
+    
+    @Label("Status")
+    int status;
+    
+    @Label("Resultado")
+    @Description("Classificação de ResultadoConsulta: cache, banco, origem, nao_encontrado, rejeitado, erro ou outros")
+    String resultado;
+    
+    /**
+     * Encerra a medição e grava o evento, se habilitado na gravação
+     */
+    public void concluir(String metodo, String caminho, int status, String resultado) {
+        end();
+        if (shouldCommit()) {
+            this.metodo = metodo;
+            this.caminho = caminho;
+            this.status = status;
+            this.resultado = resultado;
+            commit();
+        }
+    }
+}
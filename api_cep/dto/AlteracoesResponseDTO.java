@@ -0,0 +1,38 @@
+package com.example.api_cep.dto;
+
+import java.util.List;
+
+import com.example.api_cep.entity.AlteracaoEndereco;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracoesResponseDTO {
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Alteracao {
+        private long sequencia;
+        private AlteracaoEndereco.Tipo tipo;
+        private String cep;
+        private EnderecoResponseDTO endereco;
+    }
+    
+    private List<Alteracao> alteracoes;
+    
+    /** Token a ser enviado em {@code desde} na próxima chamada */
+    private long proximoToken;
+    
+    /** Indica que há mais alterações disponíveis imediatamente */
+    private boolean possuiMais;
+}
@@ -0,0 +1,21 @@
+package com.example.api_cep.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Endereço encontrado por uma busca aproximada, com a pontuação que define a ordem
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidatoEnderecoDTO {
+    
+    /** Entre 0 e 1; 1 quando todos os termos buscados aparecem exatamente no endereço */
+    private double pontuacao;
+    
+    private EnderecoResponseDTO endereco;
+}
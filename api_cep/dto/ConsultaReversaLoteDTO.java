@@ -0,0 +1,22 @@
+package com.example.api_cep.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaReversaLoteDTO {
+    
+    @NotEmpty(message = "Informe ao menos um endereço")
+    @Size(max = 1000, message = "A consulta deve conter no máximo 1000 endereços")
+    private List<@NotBlank(message = "Endereço não pode ser vazio") String> enderecos;
+}
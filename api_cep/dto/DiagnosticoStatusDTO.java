@@ -0,0 +1,28 @@
+package com.example.api_cep.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiagnosticoStatusDTO {
+    
+    private boolean gravacaoContinua;
+    
+    /** Estado da gravação sob demanda (RUNNING, STOPPED...); nulo quando não há */
+    private String gravacaoSobDemanda;
+    
+    private long limiarLentoMs;
+    
+    /** Requisições lentas mais recentes, da mais para a menos recente */
+    private List<RequisicaoLentaDTO> requisicoesLentas;
+}
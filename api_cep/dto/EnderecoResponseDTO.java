@@ -27,4 +27,5 @@ public class EnderecoResponseDTO {
     private String siafi;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long versao;
 }
\ No newline at end of file
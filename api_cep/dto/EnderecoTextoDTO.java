@@ -0,0 +1,13 @@
+package com.example.api_cep.dto;
+
+/**
+ * Projeção com os campos textuais de um endereço, usada para construir os índices de busca
+ * sem carregar as entidades no contexto de persistência
+ */
+public record EnderecoTextoDTO(String cep, String logradouro, String complemento, String bairro, String cidade, String uf) {
+    
+    public static EnderecoTextoDTO de(EnderecoResponseDTO endereco) {
+        return new EnderecoTextoDTO(endereco.getCep(), endereco.getLogradouro(), endereco.getComplemento(),
+                endereco.getBairro(), endereco.getCidade(), endereco.getUf());
+    }
+}
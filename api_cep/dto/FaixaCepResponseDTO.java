@@ -0,0 +1,23 @@
+package com.example.api_cep.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FaixaCepResponseDTO {
+    
+    private List<EnderecoResponseDTO> enderecos;
+    
+    /** Último CEP retornado; enviar em {@code cursor} para continuar. Nulo quando a faixa terminou */
+    private String proximoCursor;
+}
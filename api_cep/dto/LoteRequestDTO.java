@@ -0,0 +1,39 @@
+package com.example.api_cep.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteRequestDTO {
+    
+    /**
+     * Semântica aplicada quando alguma operação falha:
+     * <ul>
+     *   <li>ATOMICO: qualquer falha desfaz o lote inteiro</li>
+     *   <li>POR_BLOCO: cada bloco é atômico; blocos com falha são desfeitos e os demais mantidos</li>
+     *   <li>POR_ITEM: somente os itens com falha deixam de ser aplicados</li>
+     * </ul>
+     */
+    public enum ModoFalha {
+        ATOMICO,
+        POR_BLOCO,
+        POR_ITEM
+    }
+    
+    @Builder.Default
+    private ModoFalha modoFalha = ModoFalha.POR_ITEM;
+    
+    @NotEmpty(message = "O lote deve conter ao menos uma operação")
+    @Size(max = 10000, message = "O lote deve conter no máximo 10000 operações")
+    private List<@Valid OperacaoLoteDTO> operacoes;
+}
@@ -0,0 +1,37 @@
+package com.example.api_cep.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Uma operação de escrita dentro de um lote.
+ * 
+ * CRIAR usa apenas {@code endereco}; ATUALIZAR usa {@code cep} (CEP atual) e {@code endereco};
+ * DELETAR usa apenas {@code cep}. Os dados do endereço são validados pelo serviço de lote,
+ * que reporta o resultado item a item.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OperacaoLoteDTO {
+    
+    public enum Tipo {
+        CRIAR,
+        ATUALIZAR,
+        DELETAR
+    }
+    
+    @NotNull(message = "Tipo da operação é obrigatório")
+    private Tipo tipo;
+    
+    private String cep;
+    
+    private EnderecoRequestDTO endereco;
+}
@@ -0,0 +1,31 @@
+package com.example.api_cep.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Exemplo de requisição acima do limiar de lentidão
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RequisicaoLentaDTO {
+    
+    private LocalDateTime ocorridaEm;
+    private String metodo;
+    private String caminho;
+    private int status;
+    private String resultado;
+    private double latenciaMs;
+    
+    /** Gravação JFR salva por causa desta requisição, quando houve despejo automático */
+    private String arquivo;
+}
@@ -0,0 +1,45 @@
+package com.example.api_cep.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+    
+    public enum Status {
+        APLICADO,
+        INVALIDO,
+        CONFLITO,
+        NAO_ENCONTRADO,
+        ERRO,
+        NAO_APLICADO
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private int indice;
+        private OperacaoLoteDTO.Tipo tipo;
+        private String cep;
+        private Status status;
+        private String mensagem;
+    }
+    
+    private LoteRequestDTO.ModoFalha modoFalha;
+    private int total;
+    private int aplicados;
+    private int falhas;
+    private List<Item> itens;
+}
@@ -0,0 +1,36 @@
+package com.example.api_cep.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado da busca reversa de um endereço: as partes reconhecidas no texto e os endereços correspondentes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoReversoDTO {
+    
+    private String texto;
+    
+    private String logradouro;
+    
+    private Integer numero;
+    
+    private String bairro;
+    
+    private String cidade;
+    
+    private String uf;
+    
+    /** Vazio quando o endereço não foi encontrado; mais de um quando o texto é ambíguo */
+    private List<EnderecoResponseDTO> enderecos;
+}
@@ -0,0 +1,49 @@
+package com.example.api_cep.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagem de acessos a um CEP estimada por uma instância da aplicação
+ * 
+ * Cada instância substitui periodicamente as próprias linhas; o ranking usado no
+ * aquecimento de uma nova instância soma as contagens recentes de todas elas.
+ * As inserções e leituras são feitas por {@code RankingAcessoRepository}.
+ */
+@Entity
+@Table(name = "tb_ceps_acessos",
+       indexes = {
+           @Index(name = "idx_acessos_atualizado_em", columnList = "atualizado_em")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcessoCep {
+    
+    @EmbeddedId
+    private Chave chave;
+    
+    @Column(nullable = false)
+    private Integer contagem;
+    
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        
+        @Column(nullable = false, length = 36)
+        private String instancia;
+        
+        @Column(nullable = false, length = 8)
+        private String cep;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.api_cep.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Registro do histórico de alterações de endereços, usado pela sincronização incremental
+ * 
+ * A sequência é monotônica e serve como token de continuação para os clientes;
+ * remoções ficam registradas como tombstones (tipo REMOVIDO).
+ */
+@Entity
+@Table(name = "tb_enderecos_alteracoes",
+       indexes = {
+           @Index(name = "idx_alteracoes_ocorrido_em", columnList = "ocorrido_em")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlteracaoEndereco {
+    
+    public enum Tipo {
+        ALTERADO,
+        REMOVIDO
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long sequencia;
+    
+    @Column(nullable = false, length = 8)
+    private String cep;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Tipo tipo;
+    
+    @Column(name = "ocorrido_em", nullable = false)
+    private LocalDateTime ocorridoEm;
+}
@@ -0,0 +1,24 @@
+package com.example.api_cep.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha única usada como trava de ordenação do histórico de alterações
+ * 
+ * Cada transação que registra alterações bloqueia esta linha antes de obter suas
+ * sequências e só a libera ao confirmar ou desfazer; assim as sequências ficam
+ * visíveis na ordem em que foram geradas, sem lacunas preenchidas depois.
+ */
+@Entity
+@Table(name = "tb_enderecos_alteracoes_controle")
+@Data
+@NoArgsConstructor
+public class ControleAlteracoes {
+    
+    public static final long ID = 1L;
+    
+    @Id
+    private Long id;
+}
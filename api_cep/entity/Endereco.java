@@ -2,29 +2,51 @@ package com.example.api_cep.entity;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JavaType;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
+import com.example.api_cep.cache.TextoCanonicoJavaType;
+
 /**
  * Entidade que representa um endereço no banco de dados
+ * Mantida no cache de segundo nível do Hibernate (região {@value #REGIAO_CACHE})
+ * UF, cidade, bairro, DDD e IBGE são lidos como instâncias compartilhadas ({@link TextoCanonicoJavaType})
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Endereco.REGIAO_CACHE)
 @Table(name = "tb_enderecos", 
+       uniqueConstraints = {
+           @UniqueConstraint(name = Endereco.UK_CEP, columnNames = "cep")
+       },
        indexes = {
            @Index(name = "idx_cep", columnList = "cep"),
-           @Index(name = "idx_cidade", columnList = "cidade")
+           @Index(name = "idx_cidade", columnList = "cidade"),
+           @Index(name = "idx_uf_cidade", columnList = "uf, cidade")
        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Endereco {
     
+    /** Nome da constraint única de CEP, usada para reconhecer CEP duplicado nas escritas */
+    public static final String UK_CEP = "uk_enderecos_cep";
+    
+    /** Região do cache de segundo nível com as entidades */
+    public static final String REGIAO_CACHE = "endereco";
+    
+    /** Região do cache de consultas usada pelas buscas de {@link com.example.api_cep.repository.EnderecoRepository} */
+    public static final String REGIAO_CACHE_CONSULTAS = "endereco-consultas";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false, unique = true, length = 8)
+    @Column(nullable = false, length = 8)
     private String cep;
     
     @Column(nullable = false, length = 255)
@@ -33,21 +55,26 @@ public class Endereco {
     @Column(length = 100)
     private String complemento;
     
+    @JavaType(TextoCanonicoJavaType.class)
     @Column(nullable = false, length = 100)
     private String bairro;
     
+    @JavaType(TextoCanonicoJavaType.class)
     @Column(nullable = false, length = 100)
     private String cidade;
     
+    @JavaType(TextoCanonicoJavaType.class)
     @Column(nullable = false, length = 2)
     private String uf;
     
+    @JavaType(TextoCanonicoJavaType.class)
     @Column(length = 20)
     private String ibge;
     
     @Column(length = 20)
     private String gia;
     
+    @JavaType(TextoCanonicoJavaType.class)
     @Column(length = 3)
     private String ddd;
     
@@ -60,6 +87,11 @@ public class Endereco {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    /** Incrementada a cada atualização; usada na detecção otimista de conflitos e como ETag */
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
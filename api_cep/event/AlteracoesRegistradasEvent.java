@@ -0,0 +1,28 @@
+package com.example.api_cep.event;
+
+import java.util.List;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Alterações confirmadas no histórico por qualquer instância da aplicação
+ * 
+ * Publicado periodicamente por {@code AcompanhamentoAlteracoesService}, que lê o histórico
+ * compartilhado; estruturas locais (caches, filtros) o usam para enxergar escritas feitas
+ * em outras réplicas. Alterações desta instância também chegam por aqui, depois do
+ * {@link EnderecoAlteradoEvent} correspondente.
+ *
+ * Cada alteração traz o estado atual do endereço (nulo em remoções), como nas páginas de
+ * sincronização; um CEP aparece no máximo uma vez por evento.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AlteracoesRegistradasEvent {
+    
+    private final List<AlteracoesResponseDTO.Alteracao> alteracoes;
+}
@@ -0,0 +1,29 @@
+package com.example.api_cep.event;
+
+import java.time.LocalDateTime;
+
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.entity.AlteracaoEndereco;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Evento publicado para cada alteração registrada no histórico de endereços
+ * 
+ * É publicado dentro da transação que fez a escrita; quem precisa reagir somente
+ * a dados confirmados deve usar {@code @TransactionalEventListener} (AFTER_COMMIT).
+ * Em remoções, {@code endereco} é nulo.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EnderecoAlteradoEvent {
+    
+    private final long sequencia;
+    private final AlteracaoEndereco.Tipo tipo;
+    private final String cep;
+    private final EnderecoResponseDTO endereco;
+    private final LocalDateTime ocorridoEm;
+}
@@ -0,0 +1,7 @@
+package com.example.api_cep.exception;
+
+public class AcessoNegadoException extends RuntimeException {
+    public AcessoNegadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.api_cep.exception;
+
+public class CepInvalidoException extends RuntimeException {
+    public CepInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.api_cep.exception;
+
+public class ConsultaInvalidaException extends RuntimeException {
+    public ConsultaInvalidaException(String message) {
+        super(message);
+    }
+}
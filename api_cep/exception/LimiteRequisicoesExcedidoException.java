@@ -0,0 +1,15 @@
+package com.example.api_cep.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LimiteRequisicoesExcedidoException extends RuntimeException {
+    
+    /** Segundos até o cliente poder tentar novamente (header Retry-After) */
+    private final long segundosParaNovaTentativa;
+    
+    public LimiteRequisicoesExcedidoException(String message, long segundosParaNovaTentativa) {
+        super(message);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.api_cep.exception;
+
+public class ServicoSobrecarregadoException extends RuntimeException {
+    public ServicoSobrecarregadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.api_cep.exception;
+
+public class TokenSincronizacaoExpiradoException extends RuntimeException {
+    public TokenSincronizacaoExpiradoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.api_cep.grpc;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.exception.CepInvalidoException;
+import com.example.api_cep.exception.ConsultaInvalidaException;
+import com.example.api_cep.exception.EnderecoNaoEncontradoException;
+import com.example.api_cep.exception.LimiteRequisicoesExcedidoException;
+import com.example.api_cep.exception.ServicoSobrecarregadoException;
+import com.example.api_cep.grpc.proto.ConsultaCepRequest;
+import com.example.api_cep.grpc.proto.ConsultaLoteRequest;
+import com.example.api_cep.grpc.proto.ConsultaLoteResponse;
+import com.example.api_cep.grpc.proto.Endereco;
+import com.example.api_cep.grpc.proto.EnderecoServiceGrpc;
+import com.example.api_cep.grpc.proto.Erro;
+import com.example.api_cep.grpc.proto.ResultadoConsulta;
+import com.example.api_cep.service.EnderecoService;
+import com.example.api_cep.web.LimitadorConcorrencia;
+import com.example.api_cep.web.LimitadorTaxa;
+import com.google.protobuf.Timestamp;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+
+/**
+ * Interface gRPC das consultas por CEP, para os serviços internos
+ *
+ * Usa a mesma {@link EnderecoService} da API REST (cache, filtro de Bloom, banco e ViaCEP),
+ * trocando apenas o transporte: Protobuf sobre HTTP/2, com várias chamadas multiplexadas
+ * em uma única conexão. Os erros das chamadas unárias viram status gRPC em
+ * {@link GrpcExceptionAdvice}; no lote e no stream, cada item carrega o próprio erro.
+ * Os limites por cliente e de concorrência são aplicados por {@link LimitesGrpcInterceptor}.
+ */
+@GrpcService
+@Slf4j
+public class EnderecoGrpcService extends EnderecoServiceGrpc.EnderecoServiceImplBase {
+    
+    private static final ZoneId FUSO = ZoneId.systemDefault();
+    
+    private final EnderecoService service;
+    private final LimitadorTaxa limitadorTaxa;
+    private final LimitadorConcorrencia limitadorConcorrencia;
+    private final int maximoLote;
+    private final int maximoConsultasOrigemLote;
+    
+    public EnderecoGrpcService(EnderecoService service,
+                               LimitadorTaxa limitadorTaxa,
+                               LimitadorConcorrencia limitadorConcorrencia,
+                               @Value("${api-cep.grpc.maximo-lote:1000}") int maximoLote,
+                               @Value("${api-cep.grpc.maximo-consultas-origem-lote:20}") int maximoConsultasOrigemLote) {
+        this.service = service;
+        this.limitadorTaxa = limitadorTaxa;
+        this.limitadorConcorrencia = limitadorConcorrencia;
+        this.maximoLote = maximoLote;
+        this.maximoConsultasOrigemLote = maximoConsultasOrigemLote;
+    }
+    
+    @Override
+    public void buscarPorCep(ConsultaCepRequest request, StreamObserver<Endereco> respostas) {
+        respostas.onNext(paraProto(service.buscarPorCep(request.getCep())));
+        respostas.onCompleted();
+    }
+    
+    /**
+     * Consulta os CEPs em sequência; no máximo {@code maximo-consultas-origem-lote} deles podem ir ao
+     * ViaCEP, e os demais CEPs não cadastrados voltam com {@code LIMITE_EXCEDIDO}
+     */
+    @Override
+    public void buscarLote(ConsultaLoteRequest request, StreamObserver<ConsultaLoteResponse> respostas) {
+        if (request.getCepsCount() > maximoLote) {
+            throw new ConsultaInvalidaException("O lote deve conter no máximo " + maximoLote + " CEPs");
+        }
+        ConsultaLoteResponse resposta = LimitadorTaxa.comLimiteOrigem(maximoConsultasOrigemLote, () -> {
+            ConsultaLoteResponse.Builder resultados = ConsultaLoteResponse.newBuilder();
+            for (String cep : request.getCepsList()) {
+                resultados.addResultados(consultar(cep, () -> service.buscarPorCep(cep)));
+            }
+            return resultados.build();
+        });
+        respostas.onNext(resposta);
+        respostas.onCompleted();
+    }
+    
+    /**
+     * Stream bidirecional com controle de fluxo manual: só pede o próximo CEP ao cliente
+     * quando a resposta anterior pôde ser enviada, para que um cliente lento não acumule
+     * respostas em memória no servidor. Cada CEP recebido conta como uma requisição do cliente
+     * e ocupa uma vaga do limite de concorrência enquanto é consultado.
+     */
+    @Override
+    public StreamObserver<ConsultaCepRequest> resolver(StreamObserver<ResultadoConsulta> respostas) {
+        ServerCallStreamObserver<ResultadoConsulta> chamada = (ServerCallStreamObserver<ResultadoConsulta>) respostas;
+        chamada.disableAutoRequest();
+        AtomicBoolean aguardandoEnvio = new AtomicBoolean();
+        chamada.setOnReadyHandler(() -> {
+            if (chamada.isReady() && aguardandoEnvio.compareAndSet(true, false)) {
+                chamada.request(1);
+            }
+        });
+        chamada.request(1);
+        
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ConsultaCepRequest request) {
+                String cep = request.getCep();
+                chamada.onNext(consultar(cep, () -> {
+                    limitadorTaxa.consumirRequisicaoDoCliente();
+                    return limitadorConcorrencia.executar(() -> service.buscarPorCep(cep));
+                }));
+                // Marca antes de verificar: se o canal ficar pronto entre as duas linhas, o handler pede o próximo
+                aguardandoEnvio.set(true);
+                if (chamada.isReady() && aguardandoEnvio.compareAndSet(true, false)) {
+                    chamada.request(1);
+                }
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Stream de consultas encerrado pelo cliente: {}", t.getMessage());
+            }
+            
+            @Override
+            public void onCompleted() {
+                chamada.onCompleted();
+            }
+        };
+    }
+    
+    private ResultadoConsulta consultar(String cep, Supplier<EnderecoResponseDTO> consulta) {
+        ResultadoConsulta.Builder resultado = ResultadoConsulta.newBuilder().setCep(cep);
+        try {
+            return resultado.setEndereco(paraProto(consulta.get())).build();
+        } catch (EnderecoNaoEncontradoException ex) {
+            return resultado.setErro(erro(Erro.Codigo.NAO_ENCONTRADO, ex.getMessage())).build();
+        } catch (CepInvalidoException ex) {
+            return resultado.setErro(erro(Erro.Codigo.CEP_INVALIDO, ex.getMessage())).build();
+        } catch (LimiteRequisicoesExcedidoException ex) {
+            return resultado.setErro(erro(Erro.Codigo.LIMITE_EXCEDIDO, ex.getMessage())).build();
+        } catch (ServicoSobrecarregadoException ex) {
+            return resultado.setErro(erro(Erro.Codigo.INDISPONIVEL, ex.getMessage())).build();
+        } catch (RuntimeException ex) {
+            log.error("Erro não esperado na consulta gRPC do CEP {}: ", cep, ex);
+            return resultado.setErro(erro(Erro.Codigo.ERRO_INTERNO, "Ocorreu um erro inesperado no servidor")).build();
+        }
+    }
+    
+    private static Erro erro(Erro.Codigo codigo, String mensagem) {
+        return Erro.newBuilder().setCodigo(codigo).setMensagem(mensagem == null ? "" : mensagem).build();
+    }
+    
+    private static Endereco paraProto(EnderecoResponseDTO dto) {
+        Endereco.Builder endereco = Endereco.newBuilder()
+                .setCep(texto(dto.getCep()))
+                .setLogradouro(texto(dto.getLogradouro()))
+                .setComplemento(texto(dto.getComplemento()))
+                .setBairro(texto(dto.getBairro()))
+                .setCidade(texto(dto.getCidade()))
+                .setUf(texto(dto.getUf()))
+                .setIbge(texto(dto.getIbge()))
+                .setGia(texto(dto.getGia()))
+                .setDdd(texto(dto.getDdd()))
+                .setSiafi(texto(dto.getSiafi()));
+        if (dto.getId() != null) {
+            endereco.setId(dto.getId());
+        }
+        if (dto.getVersao() != null) {
+            endereco.setVersao(dto.getVersao());
+        }
+        if (dto.getCreatedAt() != null) {
+            endereco.setCreatedAt(instante(dto.getCreatedAt()));
+        }
+        if (dto.getUpdatedAt() != null) {
+            endereco.setUpdatedAt(instante(dto.getUpdatedAt()));
+        }
+        return endereco.build();
+    }
+    
+    private static String texto(String valor) {
+        return valor == null ? "" : valor;
+    }
+    
+    private static Timestamp instante(LocalDateTime dataHora) {
+        var instante = dataHora.atZone(FUSO).toInstant();
+        return Timestamp.newBuilder()
+                .setSeconds(instante.getEpochSecond())
+                .setNanos(instante.getNano())
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.api_cep.grpc;
+
+import com.example.api_cep.exception.CepInvalidoException;
+import com.example.api_cep.exception.ConsultaInvalidaException;
+import com.example.api_cep.exception.EnderecoNaoEncontradoException;
+import com.example.api_cep.exception.LimiteRequisicoesExcedidoException;
+import com.example.api_cep.exception.ServicoSobrecarregadoException;
+
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.advice.GrpcAdvice;
+import net.devh.boot.grpc.server.advice.GrpcExceptionHandler;
+
+/**
+ * Equivalente gRPC do {@link com.example.api_cep.exception.GlobalExceptionHandler}:
+ * traduz as exceções da camada de serviço em status gRPC
+ */
+@GrpcAdvice
+@Slf4j
+public class GrpcExceptionAdvice {
+    
+    @GrpcExceptionHandler(EnderecoNaoEncontradoException.class)
+    public Status handleEnderecoNaoEncontrado(EnderecoNaoEncontradoException ex) {
+        log.debug("Endereço não encontrado (gRPC): {}", ex.getMessage());
+        return Status.NOT_FOUND.withDescription(ex.getMessage());
+    }
+    
+    @GrpcExceptionHandler({CepInvalidoException.class, ConsultaInvalidaException.class})
+    public Status handleConsultaInvalida(RuntimeException ex) {
+        log.debug("Consulta inválida (gRPC): {}", ex.getMessage());
+        return Status.INVALID_ARGUMENT.withDescription(ex.getMessage());
+    }
+    
+    @GrpcExceptionHandler(LimiteRequisicoesExcedidoException.class)
+    public Status handleLimiteRequisicoesExcedido(LimiteRequisicoesExcedidoException ex) {
+        log.debug("Limite de requisições excedido (gRPC): {}", ex.getMessage());
+        return Status.RESOURCE_EXHAUSTED.withDescription(ex.getMessage());
+    }
+    
+    @GrpcExceptionHandler(ServicoSobrecarregadoException.class)
+    public Status handleServicoSobrecarregado(ServicoSobrecarregadoException ex) {
+        log.debug("Requisição gRPC rejeitada por sobrecarga: {}", ex.getMessage());
+        return Status.UNAVAILABLE.withDescription(ex.getMessage());
+    }
+    
+    @GrpcExceptionHandler(Exception.class)
+    public Status handleGenericException(Exception ex) {
+        log.error("Erro não esperado (gRPC): ", ex);
+        return Status.INTERNAL.withDescription("Ocorreu um erro inesperado no servidor");
+    }
+}
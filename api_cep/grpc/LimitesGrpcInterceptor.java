@@ -0,0 +1,92 @@
+package com.example.api_cep.grpc;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+import com.example.api_cep.exception.LimiteRequisicoesExcedidoException;
+import com.example.api_cep.exception.ServicoSobrecarregadoException;
+import com.example.api_cep.web.LimitadorConcorrencia;
+import com.example.api_cep.web.LimitadorTaxa;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+/**
+ * Aplica às chamadas gRPC os mesmos limites que {@link com.example.api_cep.config.LimitesConfig}
+ * registra para a API REST
+ *
+ * Cada chamada consome uma requisição do orçamento do cliente (chave de API cadastrada no
+ * metadado {@code x-api-key} ou endereço do par); os callbacks rodam associados ao cliente,
+ * para que as idas ao ViaCEP também sejam descontadas dele. Chamadas unárias ocupam uma vaga do
+ * limite de concorrência enquanto são tratadas; nos streams, cada mensagem é limitada
+ * individualmente por {@link EnderecoGrpcService}.
+ */
+@GrpcGlobalServerInterceptor
+@RequiredArgsConstructor
+public class LimitesGrpcInterceptor implements ServerInterceptor {
+
+    private static final Metadata.Key<String> CHAVE_API =
+            Metadata.Key.of(LimitadorTaxa.HEADER_CHAVE_API, Metadata.ASCII_STRING_MARSHALLER);
+
+    private final LimitadorTaxa limitadorTaxa;
+    private final LimitadorConcorrencia limitadorConcorrencia;
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                       ServerCallHandler<Q, R> next) {
+        String cliente = limitadorTaxa.identificarCliente(headers.get(CHAVE_API),
+                enderecoRemoto(call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR)));
+        try {
+            limitadorTaxa.consumirRequisicao(cliente);
+        } catch (LimiteRequisicoesExcedidoException ex) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(ex.getMessage()), new Metadata());
+            return new ServerCall.Listener<>() {
+            };
+        }
+
+        boolean unaria = call.getMethodDescriptor().getType() == MethodDescriptor.MethodType.UNARY;
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+            @Override
+            public void onMessage(Q mensagem) {
+                LimitadorTaxa.comCliente(cliente, () -> super.onMessage(mensagem));
+            }
+
+            @Override
+            public void onHalfClose() {
+                if (!unaria) {
+                    LimitadorTaxa.comCliente(cliente, super::onHalfClose);
+                    return;
+                }
+                // Numa chamada unária, o método do serviço é executado aqui
+                try {
+                    limitadorConcorrencia.executar(() -> {
+                        LimitadorTaxa.comCliente(cliente, super::onHalfClose);
+                        return null;
+                    });
+                } catch (ServicoSobrecarregadoException ex) {
+                    call.close(Status.UNAVAILABLE.withDescription(ex.getMessage()), new Metadata());
+                }
+            }
+
+            @Override
+            public void onReady() {
+                LimitadorTaxa.comCliente(cliente, super::onReady);
+            }
+        };
+    }
+
+    private static String enderecoRemoto(SocketAddress endereco) {
+        if (endereco instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            return inet.getAddress().getHostAddress();
+        }
+        return String.valueOf(endereco);
+    }
+}
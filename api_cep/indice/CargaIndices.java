@@ -0,0 +1,63 @@
+package com.example.api_cep.indice;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.api_cep.dto.EnderecoTextoDTO;
+import com.example.api_cep.repository.EnderecoRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Constrói as estruturas em memória derivadas de tb_enderecos (filtro de Bloom, busca aproximada
+ * e busca reversa) com uma única leitura da tabela, na inicialização e periodicamente
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CargaIndices {
+
+    private final List<IndiceCarregavel> indices;
+    private final EnderecoRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirNaInicializacao() {
+        reconstruir();
+    }
+
+    /**
+     * Percorre a tabela uma vez e entrega cada endereço a todas as estruturas habilitadas
+     */
+    @Scheduled(cron = "${api-cep.indices.cron-reconstrucao:0 0 4 * * *}")
+    public synchronized void reconstruir() {
+        List<IndiceCarregavel.Carga> cargas = indices.stream()
+                .map(IndiceCarregavel::iniciarCarga)
+                .filter(Objects::nonNull)
+                .toList();
+        if (cargas.isEmpty()) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                try (Stream<EnderecoTextoDTO> textos = repository.streamAllTextos()) {
+                    textos.forEach(texto -> cargas.forEach(carga -> carga.carregar(texto)));
+                }
+            });
+        } catch (RuntimeException e) {
+            cargas.forEach(IndiceCarregavel.Carga::descartar);
+            throw e;
+        }
+        long duracaoMs = System.currentTimeMillis() - inicio;
+        cargas.forEach(carga -> carga.concluir(duracaoMs));
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.api_cep.indice;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.dto.EnderecoTextoDTO;
+import com.example.api_cep.entity.AlteracaoEndereco;
+import com.example.api_cep.event.AlteracoesRegistradasEvent;
+import com.example.api_cep.event.EnderecoAlteradoEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filtro de Bloom sobre os CEPs persistidos em tb_enderecos
+ *
+ * Uma resposta negativa indica que o CEP não estava no banco na última sincronização,
+ * permitindo ir direto ao ViaCEP sem o {@code findByCep}. Os bits (64 por {@code long},
+ * ligados por CAS) só são ligados: marcar de novo um CEP já presente não altera o filtro,
+ * e remoções apenas deixam falsos positivos, que a reconstrução periódica ({@link CargaIndices}) elimina.
+ * 
+ * Além das alterações confirmadas nesta instância, o filtro acompanha o histórico de
+ * alterações compartilhado ({@link AlteracoesRegistradasEvent}), para enxergar CEPs
+ * gravados por outras réplicas. Enquanto o
+ * filtro não está pronto, toda consulta responde "pode conter".
+ */
+@Component
+@Slf4j
+public class FiltroBloomCeps implements IndiceCarregavel {
+
+    private static final int BITS_POR_PALAVRA = Long.SIZE;
+
+    private final boolean habilitado;
+    private final long totalBits;
+    private final int funcoesHash;
+
+    private volatile AtomicLongArray bits;
+    private volatile AtomicLongArray emConstrucao;
+    private volatile boolean pronto;
+    private final AtomicLong elementos = new AtomicLong();
+
+    private final Counter consultasNegativas;
+    private final Counter consultasPositivas;
+    private final Counter falsosPositivos;
+
+    public FiltroBloomCeps(MeterRegistry meterRegistry,
+                           @Value("${api-cep.bloom.habilitado:true}") boolean habilitado,
+                           @Value("${api-cep.bloom.capacidade:2000000}") long capacidade,
+                           @Value("${api-cep.bloom.taxa-falsos-positivos:0.01}") double taxaFalsosPositivos) {
+        this.habilitado = habilitado;
+
+        // Dimensionamento clássico: m = -n ln(p) / ln(2)^2 e k = (m / n) ln(2)
+        double ln2 = Math.log(2);
+        long bitsCalculados = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (ln2 * ln2));
+        this.totalBits = Math.max(BITS_POR_PALAVRA, bitsCalculados);
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * ln2));
+        this.bits = novoArray();
+
+        this.consultasNegativas = Counter.builder("api_cep.bloom.consultas")
+                .tag("resultado", "negativo").register(meterRegistry);
+        this.consultasPositivas = Counter.builder("api_cep.bloom.consultas")
+                .tag("resultado", "positivo").register(meterRegistry);
+        this.falsosPositivos = Counter.builder("api_cep.bloom.falsos_positivos")
+                .description("Positivos do filtro que não existiam no banco").register(meterRegistry);
+        Gauge.builder("api_cep.bloom.taxa_falsos_positivos_estimada", this, FiltroBloomCeps::taxaFalsosPositivosEstimada)
+                .register(meterRegistry);
+        Gauge.builder("api_cep.bloom.memoria_bytes", this, filtro -> filtro.bits.length() * (double) Long.BYTES)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("api_cep.bloom.elementos", elementos, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Novo filtro a partir da tabela, descartando os falsos positivos acumulados
+     */
+    @Override
+    public Carga iniciarCarga() {
+        if (!habilitado) {
+            return null;
+        }
+        AtomicLongArray novo = novoArray();
+        AtomicLong total = new AtomicLong();
+
+        // Alterações confirmadas durante a carga são aplicadas também no novo array,
+        // para que nenhum CEP inserido nesse intervalo fique de fora; como os bits só são
+        // ligados, a ordem entre a carga e essas alterações não importa
+        emConstrucao = novo;
+        return new Carga() {
+            @Override
+            public void carregar(EnderecoTextoDTO texto) {
+                marcar(novo, texto.cep());
+                total.incrementAndGet();
+            }
+
+            @Override
+            public void concluir(long duracaoMs) {
+                bits = novo;
+                emConstrucao = null;
+                elementos.set(total.get());
+                pronto = true;
+                log.info("Filtro de Bloom de CEPs construído: {} CEPs, {} KB, {} funções hash, em {} ms",
+                        total.get(), novo.length() * Long.BYTES / 1024, funcoesHash, duracaoMs);
+            }
+
+            @Override
+            public void descartar() {
+                emConstrucao = null;
+            }
+        };
+    }
+
+    /**
+     * Marca os CEPs gravados por qualquer instância, lidos do histórico de alterações
+     *
+     * Só as inclusões importam, já que remoções não desligam bits.
+     */
+    @EventListener
+    public void aoRegistrarAlteracoes(AlteracoesRegistradasEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        for (AlteracoesResponseDTO.Alteracao alteracao : evento.getAlteracoes()) {
+            if (alteracao.getTipo() == AlteracaoEndereco.Tipo.ALTERADO) {
+                incluir(alteracao.getCep());
+            }
+        }
+    }
+
+    /**
+     * Indica se o CEP pode estar no banco; {@code false} garante que não está
+     */
+    public boolean podeConter(String cep) {
+        if (!habilitado || !pronto) {
+            return true;
+        }
+        if (!contem(bits, cep)) {
+            consultasNegativas.increment();
+            return false;
+        }
+        consultasPositivas.increment();
+        return true;
+    }
+
+    /**
+     * Registra que uma resposta positiva do filtro não foi confirmada pelo banco
+     */
+    public void registrarFalsoPositivo() {
+        falsosPositivos.increment();
+    }
+
+    /**
+     * Marca imediatamente os CEPs gravados nesta instância, sem esperar o acompanhamento do histórico
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarEndereco(EnderecoAlteradoEvent evento) {
+        if (habilitado && evento.getTipo() == AlteracaoEndereco.Tipo.ALTERADO) {
+            incluir(evento.getCep());
+        }
+    }
+
+    /**
+     * Estimativa da taxa de falsos positivos atual: (fração de bits ligados)^k
+     */
+    public double taxaFalsosPositivosEstimada() {
+        AtomicLongArray atual = bits;
+        long ligados = 0;
+        for (int i = 0; i < atual.length(); i++) {
+            ligados += Long.bitCount(atual.get(i));
+        }
+        return Math.pow((double) ligados / totalBits, funcoesHash);
+    }
+
+    /**
+     * Marca o CEP no filtro atual e no que estiver em construção
+     *
+     * Atualizações de CEPs já presentes não ligam bits novos e não contam como elemento;
+     * o total é aproximado, pois um CEP novo que colide em todos os bits também não conta.
+     */
+    private void incluir(String cep) {
+        // Lê o array em construção antes do atual: a troca publica o novo array antes de limpar o campo
+        AtomicLongArray novo = emConstrucao;
+        AtomicLongArray atual = bits;
+        if (marcar(atual, cep)) {
+            elementos.incrementAndGet();
+        }
+        if (novo != null && novo != atual) {
+            marcar(novo, cep);
+        }
+    }
+
+    private AtomicLongArray novoArray() {
+        return new AtomicLongArray((int) ((totalBits + BITS_POR_PALAVRA - 1) / BITS_POR_PALAVRA));
+    }
+
+    /**
+     * Liga os bits do CEP; retorna se algum bit estava desligado
+     */
+    private boolean marcar(AtomicLongArray array, String cep) {
+        long hash = hash(cep);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean alterou = false;
+        for (int i = 0; i < funcoesHash; i++) {
+            long posicao = posicao(h1, h2, i);
+            int indice = (int) (posicao / BITS_POR_PALAVRA);
+            long mascara = 1L << (posicao % BITS_POR_PALAVRA);
+            long anterior = array.getAndUpdate(indice, palavra -> palavra | mascara);
+            alterou |= (anterior & mascara) == 0;
+        }
+        return alterou;
+    }
+
+    private boolean contem(AtomicLongArray array, String cep) {
+        long hash = hash(cep);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < funcoesHash; i++) {
+            long posicao = posicao(h1, h2, i);
+            if ((array.get((int) (posicao / BITS_POR_PALAVRA)) & (1L << (posicao % BITS_POR_PALAVRA))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long posicao(int h1, int h2, int i) {
+        // Double hashing (Kirsch-Mitzenmacher)
+        long combinado = (h1 + (long) i * h2) & Long.MAX_VALUE;
+        return combinado % totalBits;
+    }
+
+    /**
+     * Hash de 64 bits do CEP (finalizador do MurmurHash3 sobre o valor numérico)
+     */
+    private static long hash(String cep) {
+        long x = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            x = x * 31 + cep.charAt(i);
+        }
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
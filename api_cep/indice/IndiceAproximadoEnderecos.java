@@ -0,0 +1,352 @@
+package com.example.api_cep.indice;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.api_cep.dto.EnderecoTextoDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice em memória para busca tolerante a erros de digitação em logradouro, bairro e cidade
+ *
+ * Os textos são normalizados ({@link NormalizadorTexto}) e quebrados em termos. Cada termo distinto
+ * é indexado por trigramas; na busca, cada palavra digitada é expandida para os termos parecidos
+ * (trigramas em comum, confirmados por distância de edição ou prefixo) e os endereços são
+ * pontuados pela melhor correspondência de cada palavra. Só os endereços que contêm a palavra
+ * mais seletiva da busca são avaliados, então nenhuma busca percorre todos os endereços.
+ *
+ * Construção e atualização seguem {@link IndiceTextualEnderecos}.
+ */
+@Component
+@Slf4j
+public class IndiceAproximadoEnderecos extends IndiceTextualEnderecos<IndiceAproximadoEnderecos.EstruturaAproximada> {
+    
+    private static final int MAXIMO_CANDIDATOS = 50_000;
+    private static final int MAXIMO_EXPANSOES = 50;
+    private static final double PESO_LOGRADOURO = 1.0;
+    private static final double PESO_BAIRRO_CIDADE = 0.9;
+    
+    private final Timer tempoBusca;
+    
+    public IndiceAproximadoEnderecos(MeterRegistry meterRegistry,
+                                     @Value("${api-cep.busca-aproximada.habilitado:true}") boolean habilitado) {
+        super(habilitado, EstruturaAproximada::new);
+        
+        this.tempoBusca = Timer.builder("api_cep.busca_aproximada.tempo").register(meterRegistry);
+        Gauge.builder("api_cep.busca_aproximada.documentos", this, indice -> indice.atual.ativos.get())
+                .register(meterRegistry);
+        Gauge.builder("api_cep.busca_aproximada.termos", this, indice -> indice.atual.totalTermos)
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected void registrarConstrucao(EstruturaAproximada estrutura, long duracaoMs) {
+        log.info("Índice de busca aproximada construído: {} endereços, {} termos, em {} ms",
+                estrutura.ativos.get(), estrutura.totalTermos, duracaoMs);
+    }
+    
+    /**
+     * CEPs mais parecidos com o texto, do mais para o menos parecido
+     */
+    public List<Resultado> buscar(String texto, int limite) {
+        return tempoBusca.record(() -> atual.buscar(NormalizadorTexto.termos(texto), limite));
+    }
+    
+    /**
+     * CEP encontrado e sua pontuação, entre 0 e 1
+     */
+    public record Resultado(String cep, double pontuacao) {
+    }
+    
+    /**
+     * Termos de um endereço, por campo; a UF entra junto com a cidade
+     */
+    private record Documento(String cep, int[] logradouro, int[] bairro, int[] cidade) {
+    }
+    
+    /**
+     * Lista de ids que só cresce; leituras concorrentes veem um prefixo consistente
+     */
+    private static final class Postagens {
+        private volatile int[] ids = new int[4];
+        private volatile int tamanho;
+        
+        synchronized void adicionar(int id) {
+            int[] atuais = ids;
+            if (tamanho == atuais.length) {
+                int[] maiores = new int[atuais.length * 2];
+                System.arraycopy(atuais, 0, maiores, 0, tamanho);
+                ids = maiores;
+            }
+            ids[tamanho] = id;
+            tamanho = tamanho + 1;
+        }
+    }
+    
+    static final class EstruturaAproximada extends Estrutura {
+        private final Map<String, Integer> idsTermos = new ConcurrentHashMap<>();
+        private final Map<String, Postagens> termosPorTrigrama = new ConcurrentHashMap<>();
+        private volatile String[] termos = new String[1024];
+        private volatile Postagens[] documentosPorTermo = new Postagens[1024];
+        private volatile int totalTermos;
+        
+        private final Map<String, Integer> documentoPorCep = new ConcurrentHashMap<>();
+        private volatile Documento[] documentos = new Documento[1024];
+        private volatile int totalDocumentos;
+        private final AtomicInteger ativos = new AtomicInteger();
+        
+        @Override
+        protected void indexar(EnderecoTextoDTO texto) {
+            remover(texto.cep());
+            
+            List<String> cidadeUf = NormalizadorTexto.termos(texto.cidade());
+            cidadeUf.addAll(NormalizadorTexto.termos(texto.uf()));
+            Documento documento = new Documento(texto.cep(),
+                    idsDosTermos(NormalizadorTexto.termos(texto.logradouro())),
+                    idsDosTermos(NormalizadorTexto.termos(texto.bairro())),
+                    idsDosTermos(cidadeUf));
+            
+            int id = totalDocumentos;
+            if (id == documentos.length) {
+                Documento[] maiores = new Documento[id * 2];
+                System.arraycopy(documentos, 0, maiores, 0, id);
+                documentos = maiores;
+            }
+            documentos[id] = documento;
+            totalDocumentos = id + 1;
+            
+            for (int[] campo : new int[][] { documento.logradouro(), documento.bairro(), documento.cidade() }) {
+                for (int termo : campo) {
+                    documentosPorTermo[termo].adicionar(id);
+                }
+            }
+            documentoPorCep.put(texto.cep(), id);
+            ativos.incrementAndGet();
+        }
+        
+        @Override
+        protected void remover(String cep) {
+            Integer anterior = documentoPorCep.remove(cep);
+            if (anterior != null) {
+                // As postagens do documento antigo ficam até a próxima reconstrução e são ignoradas na busca
+                documentos[anterior] = null;
+                ativos.decrementAndGet();
+            }
+        }
+        
+        private int[] idsDosTermos(List<String> textos) {
+            return textos.stream().distinct().mapToInt(this::idDoTermo).toArray();
+        }
+        
+        private int idDoTermo(String termo) {
+            Integer existente = idsTermos.get(termo);
+            if (existente != null) {
+                return existente;
+            }
+            int id = totalTermos;
+            if (id == termos.length) {
+                String[] maiores = new String[id * 2];
+                System.arraycopy(termos, 0, maiores, 0, id);
+                Postagens[] postagensMaiores = new Postagens[id * 2];
+                System.arraycopy(documentosPorTermo, 0, postagensMaiores, 0, id);
+                termos = maiores;
+                documentosPorTermo = postagensMaiores;
+            }
+            termos[id] = termo;
+            documentosPorTermo[id] = new Postagens();
+            totalTermos = id + 1;
+            for (String trigrama : trigramas(termo)) {
+                termosPorTrigrama.computeIfAbsent(trigrama, t -> new Postagens()).adicionar(id);
+            }
+            idsTermos.put(termo, id);
+            return id;
+        }
+        
+        List<Resultado> buscar(List<String> palavras, int limite) {
+            List<Map<Integer, Double>> expansoes = new ArrayList<>();
+            int palavraMaisSeletiva = -1;
+            long menorTotal = Long.MAX_VALUE;
+            for (String palavra : palavras) {
+                Map<Integer, Double> expansao = expandir(palavra);
+                expansoes.add(expansao);
+                long total = 0;
+                for (int termo : expansao.keySet()) {
+                    total += documentosPorTermo[termo].tamanho;
+                }
+                if (!expansao.isEmpty() && total < menorTotal) {
+                    menorTotal = total;
+                    palavraMaisSeletiva = expansoes.size() - 1;
+                }
+            }
+            if (palavraMaisSeletiva < 0) {
+                return List.of();
+            }
+            
+            Documento[] snapshot = documentos;
+            BitSet candidatos = new BitSet(totalDocumentos);
+            int quantidade = 0;
+            for (int termo : expansoes.get(palavraMaisSeletiva).keySet()) {
+                Postagens postagens = documentosPorTermo[termo];
+                int tamanho = postagens.tamanho;
+                int[] ids = postagens.ids;
+                for (int i = 0; i < tamanho && quantidade < MAXIMO_CANDIDATOS; i++) {
+                    if (!candidatos.get(ids[i])) {
+                        candidatos.set(ids[i]);
+                        quantidade++;
+                    }
+                }
+            }
+            
+            PriorityQueue<Resultado> melhores = new PriorityQueue<>(
+                    Comparator.comparingDouble(Resultado::pontuacao).thenComparing(Resultado::cep, Comparator.reverseOrder()));
+            for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+                Documento documento = id < snapshot.length ? snapshot[id] : null;
+                if (documento == null) {
+                    continue;
+                }
+                double soma = 0;
+                for (Map<Integer, Double> expansao : expansoes) {
+                    soma += Math.max(melhor(expansao, documento.logradouro(), PESO_LOGRADOURO),
+                            Math.max(melhor(expansao, documento.bairro(), PESO_BAIRRO_CIDADE),
+                                    melhor(expansao, documento.cidade(), PESO_BAIRRO_CIDADE)));
+                }
+                melhores.offer(new Resultado(documento.cep(), soma / expansoes.size()));
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+            
+            List<Resultado> resultado = new ArrayList<>(melhores);
+            resultado.sort(Comparator.comparingDouble(Resultado::pontuacao).reversed().thenComparing(Resultado::cep));
+            return resultado;
+        }
+        
+        private static double melhor(Map<Integer, Double> expansao, int[] termosDocumento, double peso) {
+            double melhor = 0;
+            for (int termo : termosDocumento) {
+                Double similaridade = expansao.get(termo);
+                if (similaridade != null && similaridade * peso > melhor) {
+                    melhor = similaridade * peso;
+                }
+            }
+            return melhor;
+        }
+        
+        /**
+         * Termos indexados parecidos com a palavra e a similaridade de cada um (1 = idêntico)
+         */
+        private Map<Integer, Double> expandir(String palavra) {
+            Map<Integer, Double> similares = new HashMap<>();
+            Integer exato = idsTermos.get(palavra);
+            if (exato != null) {
+                similares.put(exato, 1.0);
+            }
+            if (palavra.length() < 3) {
+                return similares;
+            }
+            
+            List<String> trigramasPalavra = trigramas(palavra);
+            Map<Integer, Integer> emComum = new HashMap<>();
+            for (String trigrama : trigramasPalavra) {
+                Postagens postagens = termosPorTrigrama.get(trigrama);
+                if (postagens == null) {
+                    continue;
+                }
+                int tamanho = postagens.tamanho;
+                int[] ids = postagens.ids;
+                for (int i = 0; i < tamanho; i++) {
+                    emComum.merge(ids[i], 1, Integer::sum);
+                }
+            }
+            
+            String[] snapshot = termos;
+            int minimoEmComum = Math.max(1, (int) Math.ceil(trigramasPalavra.size() * 0.3));
+            int distanciaMaxima = palavra.length() <= 4 ? 1 : palavra.length() <= 8 ? 2 : 3;
+            PriorityQueue<Map.Entry<Integer, Double>> melhores = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Integer> entrada : emComum.entrySet()) {
+                if (entrada.getValue() < minimoEmComum || entrada.getKey().equals(exato)) {
+                    continue;
+                }
+                String termo = snapshot[entrada.getKey()];
+                double similaridade;
+                if (palavra.length() >= 4 && termo.startsWith(palavra)) {
+                    // Palavra incompleta ("paulis" → "paulista")
+                    similaridade = 0.8 + 0.15 * palavra.length() / termo.length();
+                } else {
+                    int distancia = distancia(palavra, termo, distanciaMaxima);
+                    if (distancia > distanciaMaxima) {
+                        continue;
+                    }
+                    similaridade = 1.0 - (double) distancia / Math.max(palavra.length(), termo.length());
+                }
+                melhores.offer(Map.entry(entrada.getKey(), similaridade));
+                if (melhores.size() > MAXIMO_EXPANSOES) {
+                    melhores.poll();
+                }
+            }
+            melhores.forEach(entrada -> similares.put(entrada.getKey(), entrada.getValue()));
+            return similares;
+        }
+    }
+    
+    /**
+     * Trigramas da palavra com marcadores de início e fim ("$pa", "pau", ..., "lo$")
+     */
+    static List<String> trigramas(String palavra) {
+        String marcada = "$" + palavra + "$";
+        List<String> trigramas = new ArrayList<>(marcada.length() - 2);
+        for (int i = 0; i + 3 <= marcada.length(); i++) {
+            trigramas.add(marcada.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+    
+    /**
+     * Distância de edição com transposições (Damerau restrita), interrompida ao passar do máximo
+     */
+    static int distancia(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+        int[] anterior2 = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] linha = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            linha[0] = i;
+            int menorDaLinha = linha[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int custo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                linha[j] = Math.min(Math.min(linha[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + custo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    linha[j] = Math.min(linha[j], anterior2[j - 2] + 1);
+                }
+                menorDaLinha = Math.min(menorDaLinha, linha[j]);
+            }
+            if (menorDaLinha > maximo) {
+                return maximo + 1;
+            }
+            int[] reciclada = anterior2;
+            anterior2 = anterior;
+            anterior = linha;
+            linha = reciclada;
+        }
+        return anterior[b.length()];
+    }
+}
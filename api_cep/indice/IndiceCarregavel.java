@@ -0,0 +1,30 @@
+package com.example.api_cep.indice;
+
+import com.example.api_cep.dto.EnderecoTextoDTO;
+
+/**
+ * Estrutura em memória construída a partir de tb_enderecos pela {@link CargaIndices},
+ * que percorre a tabela uma única vez e alimenta todas as estruturas registradas
+ */
+interface IndiceCarregavel {
+
+    /**
+     * Prepara uma nova versão da estrutura; nulo quando ela está desabilitada
+     */
+    Carga iniciarCarga();
+
+    /**
+     * Versão em construção: recebe cada endereço da tabela e só substitui a atual ao ser concluída
+     */
+    interface Carga {
+
+        void carregar(EnderecoTextoDTO texto);
+
+        void concluir(long duracaoMs);
+
+        /**
+         * Abandona a carga que falhou, mantendo a versão atual
+         */
+        void descartar();
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.api_cep.indice;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.api_cep.dto.EnderecoTextoDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice composto e normalizado (uf, cidade, bairro, logradouro) → CEPs, para descobrir o CEP de um endereço
+ *
+ * Mantém duas ordenações da mesma chave: com bairro, e sem bairro (uf, cidade, logradouro), usada quando o
+ * bairro não foi informado ou não confere. O logradouro é indexado sem o tipo ("rua", "avenida"...), já que
+ * é comum omiti-lo; como as chaves são ordenadas, um logradouro incompleto é resolvido por prefixo.
+ * Quando o número é conhecido, as faixas de numeração do complemento ("até 610 - lado par") escolhem
+ * o CEP certo entre os do mesmo logradouro. Construção e atualização seguem {@link IndiceTextualEnderecos}:
+ * endereços gravados em outras instâncias passam a ser resolvidos aqui assim que o histórico de
+ * alterações é lido, sem esperar a reconstrução diária.
+ */
+@Component
+@Slf4j
+public class IndiceReversoEnderecos extends IndiceTextualEnderecos<IndiceReversoEnderecos.EstruturaReversa> {
+    
+    private static final char SEPARADOR = '|';
+    private static final int MAXIMO_CHAVES_PREFIXO = 20;
+    private static final int MAXIMO_CEPS = 20;
+    
+    private static final Pattern DE = Pattern.compile("\\bde (\\d+)");
+    private static final Pattern ATE = Pattern.compile("\\b(?:ate|a) (\\d+)(?: (\\d+))?");
+    
+    public IndiceReversoEnderecos(MeterRegistry meterRegistry,
+                                  @Value("${api-cep.busca-reversa.habilitado:true}") boolean habilitado) {
+        super(habilitado, EstruturaReversa::new);
+        
+        Gauge.builder("api_cep.busca_reversa.enderecos", this, indice -> indice.atual.entradas.size())
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected void registrarConstrucao(EstruturaReversa estrutura, long duracaoMs) {
+        log.info("Índice de busca reversa construído: {} endereços, {} logradouros, em {} ms",
+                estrutura.entradas.size(), estrutura.semBairro.size(), duracaoMs);
+    }
+    
+    /**
+     * CEPs do endereço interpretado (no máximo {@value #MAXIMO_CEPS}); vazio quando logradouro ou cidade não foram reconhecidos
+     */
+    public List<String> resolver(InterpretadorEndereco.EnderecoInterpretado endereco) {
+        if (endereco.logradouro() == null || endereco.cidade() == null) {
+            return List.of();
+        }
+        EstruturaReversa estrutura = atual;
+        List<String> ufs = endereco.uf() != null ? List.of(endereco.uf().toLowerCase(Locale.ROOT))
+                : InterpretadorEndereco.UFS.stream().map(uf -> uf.toLowerCase(Locale.ROOT)).toList();
+        String cidade = NormalizadorTexto.chave(endereco.cidade());
+        String logradouro = chaveLogradouro(endereco.logradouro());
+        if (cidade.isEmpty() || logradouro.isEmpty()) {
+            return List.of();
+        }
+        
+        Set<String> ceps = new LinkedHashSet<>();
+        if (endereco.bairro() != null) {
+            String bairro = NormalizadorTexto.chave(endereco.bairro());
+            for (String uf : ufs) {
+                adicionar(ceps, estrutura.comBairro.get(chave(uf, cidade, bairro, logradouro)));
+            }
+        }
+        if (ceps.isEmpty()) {
+            for (String uf : ufs) {
+                adicionar(ceps, estrutura.semBairro.get(chave(uf, cidade, logradouro)));
+            }
+        }
+        if (ceps.isEmpty()) {
+            for (String uf : ufs) {
+                String prefixo = chave(uf, cidade, logradouro);
+                estrutura.semBairro.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values().stream()
+                        .limit(MAXIMO_CHAVES_PREFIXO)
+                        .forEach(encontrados -> adicionar(ceps, encontrados));
+            }
+        }
+        
+        List<String> filtrados = filtrarPorNumero(estrutura, new ArrayList<>(ceps), endereco.numero());
+        return filtrados.size() > MAXIMO_CEPS ? filtrados.subList(0, MAXIMO_CEPS) : filtrados;
+    }
+    
+    private static void adicionar(Set<String> destino, Set<String> ceps) {
+        if (ceps != null) {
+            destino.addAll(ceps);
+        }
+    }
+    
+    /**
+     * Mantém somente os CEPs cuja faixa de numeração contém o número; sem correspondência, mantém todos
+     */
+    private static List<String> filtrarPorNumero(EstruturaReversa estrutura, List<String> ceps, Integer numero) {
+        if (numero == null || ceps.size() <= 1) {
+            return ceps;
+        }
+        List<String> naFaixa = ceps.stream()
+                .filter(cep -> {
+                    Entrada entrada = estrutura.entradas.get(cep);
+                    return entrada != null && entrada.faixa() != null && entrada.faixa().contem(numero);
+                })
+                .toList();
+        return naFaixa.isEmpty() ? ceps : naFaixa;
+    }
+    
+    /**
+     * Logradouro normalizado sem o tipo inicial ("Av. Paulista" → "paulista")
+     */
+    static String chaveLogradouro(String logradouro) {
+        List<String> termos = NormalizadorTexto.termos(logradouro);
+        if (termos.size() > 1 && InterpretadorEndereco.TIPOS_LOGRADOURO.contains(termos.get(0))) {
+            termos = termos.subList(1, termos.size());
+        }
+        return String.join(" ", termos);
+    }
+    
+    private static String chave(String... partes) {
+        return String.join(String.valueOf(SEPARADOR), partes);
+    }
+    
+    /**
+     * Faixa de numeração atendida por um CEP, extraída do complemento dos Correios
+     * ("até 610/611", "de 612/613 ao fim", "de 1 a 299 - lado ímpar")
+     */
+    record FaixaNumeracao(int inicio, int fim, int paridade) {
+        
+        static FaixaNumeracao de(String complemento) {
+            String texto = NormalizadorTexto.normalizar(complemento);
+            if (texto.isEmpty()) {
+                return null;
+            }
+            Matcher de = DE.matcher(texto);
+            Matcher ate = ATE.matcher(texto);
+            boolean temInicio = de.find();
+            boolean temFim = ate.find(temInicio ? de.end() : 0);
+            int paridade = texto.contains("lado par") ? 0 : texto.contains("lado impar") ? 1 : -1;
+            if (!temInicio && !temFim && paridade < 0) {
+                return null;
+            }
+            // Números que não cabem em um int não são numeração de logradouro: o limite fica aberto
+            Integer inicio = temInicio ? InterpretadorEndereco.numero(de.group(1)) : null;
+            Integer fim = temFim ? InterpretadorEndereco.numero(ate.group(ate.group(2) != null ? 2 : 1)) : null;
+            return new FaixaNumeracao(inicio != null ? inicio : 0, fim != null ? fim : Integer.MAX_VALUE, paridade);
+        }
+        
+        boolean contem(int numero) {
+            return numero >= inicio && numero <= fim && (paridade < 0 || numero % 2 == paridade);
+        }
+    }
+    
+    private record Entrada(String chaveComBairro, String chaveSemBairro, FaixaNumeracao faixa) {
+    }
+    
+    static final class EstruturaReversa extends Estrutura {
+        private final NavigableMap<String, Set<String>> comBairro = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, Set<String>> semBairro = new ConcurrentSkipListMap<>();
+        private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+        
+        @Override
+        protected void indexar(EnderecoTextoDTO texto) {
+            remover(texto.cep());
+            
+            String uf = texto.uf() != null ? texto.uf().toLowerCase(Locale.ROOT) : "";
+            String cidade = NormalizadorTexto.chave(texto.cidade());
+            String logradouro = chaveLogradouro(texto.logradouro());
+            if (logradouro.isEmpty()) {
+                // CEP geral de município, sem logradouro: não é resolvível por endereço
+                return;
+            }
+            Entrada entrada = new Entrada(
+                    chave(uf, cidade, NormalizadorTexto.chave(texto.bairro()), logradouro),
+                    chave(uf, cidade, logradouro),
+                    FaixaNumeracao.de(texto.complemento()));
+            comBairro.computeIfAbsent(entrada.chaveComBairro(), k -> ConcurrentHashMap.newKeySet()).add(texto.cep());
+            semBairro.computeIfAbsent(entrada.chaveSemBairro(), k -> ConcurrentHashMap.newKeySet()).add(texto.cep());
+            entradas.put(texto.cep(), entrada);
+        }
+        
+        @Override
+        protected void remover(String cep) {
+            Entrada anterior = entradas.remove(cep);
+            if (anterior != null) {
+                removerDaChave(comBairro, anterior.chaveComBairro(), cep);
+                removerDaChave(semBairro, anterior.chaveSemBairro(), cep);
+            }
+        }
+        
+        private static void removerDaChave(NavigableMap<String, Set<String>> mapa, String chave, String cep) {
+            Set<String> ceps = mapa.get(chave);
+            if (ceps != null) {
+                ceps.remove(cep);
+                if (ceps.isEmpty()) {
+                    mapa.remove(chave);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.api_cep.indice;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.EnderecoTextoDTO;
+import com.example.api_cep.entity.AlteracaoEndereco;
+import com.example.api_cep.event.AlteracoesRegistradasEvent;
+import com.example.api_cep.event.EnderecoAlteradoEvent;
+
+/**
+ * Ciclo de vida comum aos índices textuais de endereços
+ *
+ * A estrutura é construída pela {@link CargaIndices} (na inicialização e periodicamente, para
+ * compactar entradas removidas) e, entre reconstruções, atualizada a cada alteração confirmada:
+ * as desta instância ao confirmar, e as de todas as instâncias ao ler o histórico de alterações
+ * ({@link AlteracoesRegistradasEvent}), que traz o estado atual de cada endereço. Alterações
+ * recebidas durante uma carga vão também para a estrutura em construção, e a carga não
+ * sobrescreve esses CEPs com a versão lida antes da alteração.
+ */
+public abstract class IndiceTextualEnderecos<E extends IndiceTextualEnderecos.Estrutura> implements IndiceCarregavel {
+
+    private final boolean habilitado;
+    private final Supplier<E> novaEstrutura;
+
+    protected volatile E atual;
+    private volatile E emConstrucao;
+    private volatile boolean pronto;
+
+    protected IndiceTextualEnderecos(boolean habilitado, Supplier<E> novaEstrutura) {
+        this.habilitado = habilitado;
+        this.novaEstrutura = novaEstrutura;
+        this.atual = novaEstrutura.get();
+        this.atual.concluirCarga();
+    }
+
+    public boolean isPronto() {
+        return habilitado && pronto;
+    }
+
+    @Override
+    public Carga iniciarCarga() {
+        if (!habilitado) {
+            return null;
+        }
+        E nova = novaEstrutura.get();
+        emConstrucao = nova;
+        return new Carga() {
+            @Override
+            public void carregar(EnderecoTextoDTO texto) {
+                nova.carregar(texto);
+            }
+
+            @Override
+            public void concluir(long duracaoMs) {
+                nova.concluirCarga();
+                atual = nova;
+                emConstrucao = null;
+                pronto = true;
+                registrarConstrucao(nova, duracaoMs);
+            }
+
+            @Override
+            public void descartar() {
+                emConstrucao = null;
+            }
+        };
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void aoAlterarEndereco(EnderecoAlteradoEvent evento) {
+        if (habilitado) {
+            aplicar(evento.getTipo(), evento.getCep(), evento.getEndereco());
+        }
+    }
+
+    /**
+     * Aplica as alterações de qualquer instância, lidas do histórico; as desta já foram aplicadas
+     * ao confirmar, e reaplicá-las com o estado atual não muda o índice
+     */
+    @EventListener
+    public void aoRegistrarAlteracoes(AlteracoesRegistradasEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        for (AlteracoesResponseDTO.Alteracao alteracao : evento.getAlteracoes()) {
+            aplicar(alteracao.getTipo(), alteracao.getCep(), alteracao.getEndereco());
+        }
+    }
+
+    private void aplicar(AlteracaoEndereco.Tipo tipo, String cep, EnderecoResponseDTO endereco) {
+        // Lê a estrutura em construção antes da atual: a troca publica a nova antes de limpar o campo
+        E nova = emConstrucao;
+        E corrente = atual;
+        corrente.aplicar(tipo, cep, endereco);
+        if (nova != null && nova != corrente) {
+            nova.aplicar(tipo, cep, endereco);
+        }
+    }
+
+    protected abstract void registrarConstrucao(E estrutura, long duracaoMs);
+
+    /**
+     * Estrutura de um índice; {@link #indexar} substitui a entrada anterior do mesmo CEP
+     */
+    protected abstract static class Estrutura {
+
+        /** CEPs alterados durante a carga; nulo depois dela */
+        private volatile Set<String> tocados = ConcurrentHashMap.newKeySet();
+
+        final synchronized void carregar(EnderecoTextoDTO texto) {
+            Set<String> alterados = tocados;
+            if (alterados == null || !alterados.contains(texto.cep())) {
+                indexar(texto);
+            }
+        }
+
+        final synchronized void aplicar(AlteracaoEndereco.Tipo tipo, String cep, EnderecoResponseDTO endereco) {
+            Set<String> alterados = tocados;
+            if (alterados != null) {
+                alterados.add(cep);
+            }
+            if (tipo == AlteracaoEndereco.Tipo.ALTERADO) {
+                indexar(EnderecoTextoDTO.de(endereco));
+            } else {
+                remover(cep);
+            }
+        }
+
+        final void concluirCarga() {
+            tocados = null;
+        }
+
+        protected abstract void indexar(EnderecoTextoDTO texto);
+
+        protected abstract void remover(String cep);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.api_cep.indice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Interpreta um endereço brasileiro em texto livre, no formato usual
+ * "logradouro, número - bairro, cidade - UF" (com variações de separadores e partes omitidas)
+ */
+public final class InterpretadorEndereco {
+    
+    public static final Set<String> UFS = Set.of("AC", "AL", "AP", "AM", "BA", "CE", "DF", "ES", "GO", "MA", "MT", "MS",
+            "MG", "PA", "PB", "PR", "PE", "PI", "RJ", "RN", "RS", "RO", "RR", "SC", "SP", "SE", "TO");
+    
+    /** Tipos de logradouro, já normalizados ({@link NormalizadorTexto}) */
+    static final Set<String> TIPOS_LOGRADOURO = Set.of("rua", "avenida", "alameda", "praca", "travessa",
+            "estrada", "rodovia", "largo", "viela", "beco", "ladeira", "parque", "passagem", "servidao", "via", "vila");
+    
+    private static final int MAXIMO_DIGITOS_NUMERO = 9;
+    
+    private static final Pattern SEPARADORES = Pattern.compile("\\s*[,;/]\\s*|\\s+-\\s+|\\s+–\\s+");
+    private static final Pattern CEP = Pattern.compile("(?i)\\b(cep:?\\s*)?\\d{5}-?\\d{3}\\b");
+    private static final Pattern NUMERO = Pattern.compile("(?i)^(n[º°o.]?\\s*)?(\\d+)\\s*[a-z]?$|^s\\.?\\s*n\\.?$|^sem n[uú]mero$");
+    private static final Pattern NUMERO_FINAL = Pattern.compile("^(.*\\D)\\s+(?:n[º°o.]?\\s*)?(\\d+)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPLEMENTO = Pattern.compile(
+            "(?i)^(apto|apartamento|ap|bloco|bl|sala|sl|casa|cs|conj|conjunto|andar|lote|lt|quadra|qd|loja|fundos|km)\\b.*");
+    private static final Pattern UF_FINAL = Pattern.compile("^(.*\\S)\\s+([A-Za-z]{2})$");
+    
+    private InterpretadorEndereco() {
+    }
+    
+    /**
+     * Partes reconhecidas no texto; campos ausentes ficam nulos
+     */
+    public record EnderecoInterpretado(String logradouro, Integer numero, String bairro, String cidade, String uf) {
+    }
+    
+    public static EnderecoInterpretado interpretar(String texto) {
+        String semCep = CEP.matcher(texto == null ? "" : texto).replaceAll(" ").strip();
+        List<String> partes = new ArrayList<>(Arrays.stream(SEPARADORES.split(semCep))
+                .map(String::strip)
+                .filter(parte -> !parte.isEmpty())
+                .toList());
+        
+        String uf = null;
+        if (!partes.isEmpty()) {
+            String ultima = partes.get(partes.size() - 1);
+            if (UFS.contains(ultima.toUpperCase(Locale.ROOT))) {
+                uf = ultima.toUpperCase(Locale.ROOT);
+                partes.remove(partes.size() - 1);
+            } else {
+                Matcher ufFinal = UF_FINAL.matcher(ultima);
+                if (ufFinal.matches() && UFS.contains(ufFinal.group(2).toUpperCase(Locale.ROOT)) && partes.size() > 1) {
+                    uf = ufFinal.group(2).toUpperCase(Locale.ROOT);
+                    partes.set(partes.size() - 1, ufFinal.group(1));
+                }
+            }
+        }
+        
+        Integer numero = null;
+        List<String> nomes = new ArrayList<>();
+        for (String parte : partes) {
+            Matcher matcherNumero = NUMERO.matcher(parte);
+            if (matcherNumero.matches()) {
+                if (numero == null && matcherNumero.group(2) != null) {
+                    numero = numero(matcherNumero.group(2));
+                }
+            } else if (!COMPLEMENTO.matcher(parte).matches()) {
+                nomes.add(parte);
+            }
+        }
+        if (nomes.isEmpty()) {
+            return new EnderecoInterpretado(null, numero, null, null, uf);
+        }
+        
+        String logradouro = nomes.get(0);
+        Matcher numeroFinal = NUMERO_FINAL.matcher(logradouro);
+        // Só separa o número final quando sobra um nome além do tipo: em "Rua 10" o número é o nome
+        if (numeroFinal.matches() && temNomeAlemDoTipo(numeroFinal.group(1))) {
+            logradouro = numeroFinal.group(1).strip();
+            if (numero == null) {
+                numero = numero(numeroFinal.group(2));
+            }
+        }
+        
+        String cidade = nomes.size() >= 2 ? nomes.get(nomes.size() - 1) : null;
+        String bairro = nomes.size() >= 3 ? nomes.get(1) : null;
+        return new EnderecoInterpretado(logradouro, numero, bairro, cidade, uf);
+    }
+    
+    /**
+     * Número com até {@value #MAXIMO_DIGITOS_NUMERO} dígitos; nulo quando maior, já que não é numeração de endereço
+     */
+    static Integer numero(String digitos) {
+        return digitos.length() <= MAXIMO_DIGITOS_NUMERO ? Integer.valueOf(digitos) : null;
+    }
+    
+    private static boolean temNomeAlemDoTipo(String logradouro) {
+        List<String> termos = NormalizadorTexto.termos(logradouro);
+        return termos.size() > 1 || (termos.size() == 1 && !TIPOS_LOGRADOURO.contains(termos.get(0)));
+    }
+}
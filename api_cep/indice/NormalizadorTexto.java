@@ -0,0 +1,93 @@
+package com.example.api_cep.indice;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de textos de endereço para indexação e busca
+ *
+ * Remove acentos, passa para minúsculas, troca pontuação por espaço e expande as abreviações
+ * mais comuns de logradouros e títulos ("av" → "avenida", "dr" → "doutor"), de modo que
+ * "Av. Dr. Arnaldo" e "avenida doutor arnaldo" produzam os mesmos termos.
+ */
+public final class NormalizadorTexto {
+    
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    
+    private static final Map<String, String> ABREVIACOES = Map.ofEntries(
+            Map.entry("av", "avenida"),
+            Map.entry("r", "rua"),
+            Map.entry("al", "alameda"),
+            Map.entry("pc", "praca"),
+            Map.entry("pca", "praca"),
+            Map.entry("pq", "parque"),
+            Map.entry("tv", "travessa"),
+            Map.entry("trav", "travessa"),
+            Map.entry("est", "estrada"),
+            Map.entry("estr", "estrada"),
+            Map.entry("rod", "rodovia"),
+            Map.entry("lgo", "largo"),
+            Map.entry("vl", "vila"),
+            Map.entry("jd", "jardim"),
+            Map.entry("jard", "jardim"),
+            Map.entry("res", "residencial"),
+            Map.entry("dr", "doutor"),
+            Map.entry("prof", "professor"),
+            Map.entry("eng", "engenheiro"),
+            Map.entry("gov", "governador"),
+            Map.entry("pres", "presidente"),
+            Map.entry("cel", "coronel"),
+            Map.entry("gal", "general"),
+            Map.entry("mal", "marechal"),
+            Map.entry("sta", "santa"),
+            Map.entry("sto", "santo"),
+            Map.entry("sra", "senhora"));
+    
+    /** Palavras sem valor para distinguir endereços */
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of("de", "da", "do", "das", "dos", "e");
+    
+    private NormalizadorTexto() {
+    }
+    
+    /**
+     * Texto sem acentos, em minúsculas e com um único espaço entre as palavras
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NAO_ALFANUMERICO.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+    
+    /**
+     * Termos do texto normalizado, com abreviações expandidas e sem palavras vazias
+     */
+    public static List<String> termos(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> termos = new ArrayList<>();
+        if (normalizado.isEmpty()) {
+            return termos;
+        }
+        for (String palavra : normalizado.split(" ")) {
+            String termo = ABREVIACOES.getOrDefault(palavra, palavra);
+            if (!PALAVRAS_VAZIAS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+    
+    /**
+     * Forma canônica de um campo inteiro (termos unidos por espaço), usada como chave de índice
+     */
+    public static String chave(String texto) {
+        return String.join(" ", termos(texto));
+    }
+}
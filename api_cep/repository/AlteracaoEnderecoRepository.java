@@ -0,0 +1,50 @@
+package com.example.api_cep.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.api_cep.entity.AlteracaoEndereco;
+
+/**
+ * Repository para leitura e manutenção do histórico de alterações
+ * As inserções são feitas em batch por {@link EnderecoLoteRepository#inserirAlteracoes}
+ */
+@Repository
+public interface AlteracaoEnderecoRepository extends JpaRepository<AlteracaoEndereco, Long> {
+    
+    /**
+     * Busca as alterações posteriores ao token, em ordem de sequência (varredura pela chave primária)
+     * Query SQL: SELECT * FROM tb_enderecos_alteracoes WHERE sequencia > ? ORDER BY sequencia LIMIT ?
+     */
+    @Query("SELECT a FROM AlteracaoEndereco a WHERE a.sequencia > :desde ORDER BY a.sequencia")
+    List<AlteracaoEndereco> buscarDesde(@Param("desde") long desde, Pageable pageable);
+    
+    /**
+     * Menor sequência ainda retida no histórico
+     * Query SQL: SELECT MIN(sequencia) FROM tb_enderecos_alteracoes
+     */
+    @Query("SELECT MIN(a.sequencia) FROM AlteracaoEndereco a")
+    Long menorSequencia();
+    
+    /**
+     * Maior sequência registrada no histórico
+     * Query SQL: SELECT MAX(sequencia) FROM tb_enderecos_alteracoes
+     */
+    @Query("SELECT MAX(a.sequencia) FROM AlteracaoEndereco a")
+    Long maiorSequencia();
+    
+    /**
+     * Remove alterações anteriores ao limite de retenção
+     * Query SQL: DELETE FROM tb_enderecos_alteracoes WHERE ocorrido_em < ?
+     */
+    @Modifying
+    @Query("DELETE FROM AlteracaoEndereco a WHERE a.ocorridoEm < :limite")
+    int removerAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,47 @@
+package com.example.api_cep.repository;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository para a exportação completa de tb_enderecos via JDBC
+ * As linhas são lidas por um cursor somente-avanço, em blocos de {@code fetch-size} linhas, e entregues
+ * uma a uma ao chamador: nada passa pelo contexto de persistência e a memória usada não cresce com a tabela.
+ * Deve ser chamado dentro de uma transação (alguns drivers, como o do PostgreSQL, só usam cursor fora do autocommit).
+ */
+@Repository
+public class EnderecoExportacaoRepository {
+    
+    /** Colunas exportadas, na ordem em que são lidas */
+    public static final String[] COLUNAS = {
+        "cep", "logradouro", "complemento", "bairro", "cidade", "uf", "ibge", "gia", "ddd", "siafi", "created_at", "updated_at"
+    };
+    
+    private static final String SQL_SELECT =
+            "SELECT " + String.join(", ", COLUNAS) + " FROM tb_enderecos";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public EnderecoExportacaoRepository(DataSource dataSource,
+                                        @Value("${api-cep.exportacao.fetch-size:5000}") int fetchSize) {
+        // Template próprio: o fetch size alto só faz sentido para a exportação
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+    
+    /**
+     * Percorre todos os endereços, opcionalmente de uma única UF, na ordem física da tabela
+     * Query SQL: SELECT cep, logradouro, ... FROM tb_enderecos [WHERE uf = ?]
+     */
+    public void percorrer(String uf, RowCallbackHandler linha) {
+        if (uf == null) {
+            jdbcTemplate.query(SQL_SELECT, linha);
+        } else {
+            jdbcTemplate.query(SQL_SELECT + " WHERE uf = ?", linha, uf);
+        }
+    }
+}
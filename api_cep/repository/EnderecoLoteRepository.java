@@ -0,0 +1,192 @@
+package com.example.api_cep.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.example.api_cep.cache.InvalidacaoCacheHibernate;
+import com.example.api_cep.dto.EnderecoRequestDTO;
+import com.example.api_cep.dto.OperacaoLoteDTO;
+import com.example.api_cep.entity.AlteracaoEndereco;
+import com.example.api_cep.entity.ControleAlteracoes;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository para escritas em lote via JDBC batching
+ * Cada método envia todas as linhas em um único executeBatch, sem passar pelo contexto de persistência;
+ * por isso as escritas em tb_enderecos registram a invalidação do cache de segundo nível antes de executar
+ * 
+ * As escritas unitárias por CEP também ficam aqui, em um único comando cada; nelas quem chama
+ * invalida apenas a entrada alterada ({@link InvalidacaoCacheHibernate#invalidarEnderecoAposCommit}).
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnderecoLoteRepository {
+    
+    private static final String SQL_INSERT =
+            "INSERT INTO tb_enderecos (cep, logradouro, complemento, bairro, cidade, uf, ibge, gia, ddd, siafi, created_at, versao) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    
+    private static final String SQL_UPDATE =
+            "UPDATE tb_enderecos SET cep = ?, logradouro = ?, complemento = ?, bairro = ?, cidade = ?, uf = ?, " +
+            "ibge = ?, gia = ?, ddd = ?, siafi = ?, updated_at = ?, versao = versao + 1 WHERE cep = ?";
+    
+    private static final String SQL_UPDATE_VERSAO = SQL_UPDATE + " AND versao = ?";
+    
+    private static final String SQL_DELETE = "DELETE FROM tb_enderecos WHERE cep = ?";
+    
+    private static final String SQL_INSERT_ALTERACAO =
+            "INSERT INTO tb_enderecos_alteracoes (cep, tipo, ocorrido_em) VALUES (?, ?, ?)";
+    
+    private static final String SQL_TRAVAR_ALTERACOES =
+            "SELECT id FROM tb_enderecos_alteracoes_controle WHERE id = ? FOR UPDATE";
+    
+    private static final String SQL_INSERT_CONTROLE_ALTERACOES =
+            "INSERT INTO tb_enderecos_alteracoes_controle (id) SELECT ? WHERE NOT EXISTS " +
+            "(SELECT 1 FROM tb_enderecos_alteracoes_controle WHERE id = ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final InvalidacaoCacheHibernate invalidacaoCache;
+    
+    /**
+     * Insere os endereços informados
+     * Query SQL: INSERT INTO tb_enderecos (...) VALUES (...)
+     */
+    public int[] inserir(List<OperacaoLoteDTO> operacoes, LocalDateTime agora) {
+        List<Object[]> parametros = operacoes.stream()
+                .map(op -> parametrosEndereco(op.getEndereco(), agora))
+                .toList();
+        invalidacaoCache.invalidarEnderecosAposCommit();
+        return jdbcTemplate.batchUpdate(SQL_INSERT, parametros);
+    }
+    
+    /**
+     * Atualiza os endereços identificados pelo CEP atual de cada operação
+     * Query SQL: UPDATE tb_enderecos SET ... WHERE cep = ?
+     */
+    public int[] atualizar(List<OperacaoLoteDTO> operacoes, LocalDateTime agora) {
+        List<Object[]> parametros = operacoes.stream()
+                .map(op -> {
+                    Object[] endereco = parametrosEndereco(op.getEndereco(), agora);
+                    Object[] linha = new Object[endereco.length + 1];
+                    System.arraycopy(endereco, 0, linha, 0, endereco.length);
+                    linha[endereco.length] = op.getCep();
+                    return linha;
+                })
+                .toList();
+        invalidacaoCache.invalidarEnderecosAposCommit();
+        return jdbcTemplate.batchUpdate(SQL_UPDATE, parametros);
+    }
+    
+    /**
+     * Remove os endereços pelos CEPs informados
+     * Query SQL: DELETE FROM tb_enderecos WHERE cep = ?
+     */
+    public int[] deletar(List<OperacaoLoteDTO> operacoes) {
+        List<Object[]> parametros = operacoes.stream()
+                .map(op -> new Object[] { op.getCep() })
+                .toList();
+        invalidacaoCache.invalidarEnderecosAposCommit();
+        return jdbcTemplate.batchUpdate(SQL_DELETE, parametros);
+    }
+    
+    /**
+     * Atualiza o endereço identificado pelo CEP em um único comando, sem carregar a entidade
+     * Query SQL: UPDATE tb_enderecos SET ..., versao = versao + 1 WHERE cep = ? [AND versao = ?]
+     * 
+     * @param versaoEsperada versão exigida para a alteração; {@code null} para não verificar
+     * @return quantidade de linhas afetadas (0 quando o CEP não existe ou está em outra versão)
+     */
+    public int atualizarPorCep(String cep, EnderecoRequestDTO dto, LocalDateTime agora, Long versaoEsperada) {
+        List<Object> parametros = new ArrayList<>(Arrays.asList(parametrosEndereco(dto, agora)));
+        parametros.add(cep);
+        if (versaoEsperada == null) {
+            return jdbcTemplate.update(SQL_UPDATE, parametros.toArray());
+        }
+        parametros.add(versaoEsperada);
+        return jdbcTemplate.update(SQL_UPDATE_VERSAO, parametros.toArray());
+    }
+    
+    /**
+     * Remove o endereço pelo CEP em um único comando, sem carregar a entidade
+     * Query SQL: DELETE FROM tb_enderecos WHERE cep = ?
+     * 
+     * @return quantidade de linhas removidas (0 quando o CEP não existe)
+     */
+    public int deletarPorCep(String cep) {
+        return jdbcTemplate.update(SQL_DELETE, cep);
+    }
+    
+    /**
+     * Cria a linha de controle do histórico, caso ainda não exista
+     * Query SQL: INSERT INTO tb_enderecos_alteracoes_controle (id) SELECT ? WHERE NOT EXISTS (...)
+     */
+    public void garantirControleAlteracoes() {
+        try {
+            jdbcTemplate.update(SQL_INSERT_CONTROLE_ALTERACOES, ControleAlteracoes.ID, ControleAlteracoes.ID);
+        } catch (DuplicateKeyException e) {
+            // Outra instância criou a linha ao mesmo tempo
+        }
+    }
+    
+    /**
+     * Registra alterações no histórico e preenche a sequência gerada em cada registro
+     * 
+     * A linha de controle fica bloqueada até o fim da transação: quem registra alterações
+     * confirma na ordem das sequências, e um leitor nunca vê uma sequência maior antes
+     * de uma menor que ainda vai ser confirmada.
+     * Query SQL: SELECT id FROM tb_enderecos_alteracoes_controle WHERE id = ? FOR UPDATE
+     * Query SQL: INSERT INTO tb_enderecos_alteracoes (cep, tipo, ocorrido_em) VALUES (?, ?, ?)
+     */
+    public void inserirAlteracoes(List<AlteracaoEndereco> alteracoes) {
+        List<Long> travadas = jdbcTemplate.queryForList(SQL_TRAVAR_ALTERACOES, Long.class, ControleAlteracoes.ID);
+        if (travadas.isEmpty()) {
+            throw new IllegalStateException("Linha de controle do histórico de alterações ausente");
+        }
+        
+        KeyHolder chaves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(SQL_INSERT_ALTERACAO, new String[] { "sequencia" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        AlteracaoEndereco alteracao = alteracoes.get(i);
+                        ps.setString(1, alteracao.getCep());
+                        ps.setString(2, alteracao.getTipo().name());
+                        ps.setTimestamp(3, Timestamp.valueOf(alteracao.getOcorridoEm()));
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return alteracoes.size();
+                    }
+                },
+                chaves);
+        
+        List<Map<String, Object>> geradas = chaves.getKeyList();
+        for (int i = 0; i < alteracoes.size(); i++) {
+            Number sequencia = (Number) geradas.get(i).values().iterator().next();
+            alteracoes.get(i).setSequencia(sequencia.longValue());
+        }
+    }
+    
+    private Object[] parametrosEndereco(EnderecoRequestDTO dto, LocalDateTime agora) {
+        return new Object[] {
+                dto.getCep(), dto.getLogradouro(), dto.getComplemento(), dto.getBairro(), dto.getCidade(),
+                dto.getUf(), dto.getIbge(), dto.getGia(), dto.getDdd(), dto.getSiafi(), Timestamp.valueOf(agora)
+        };
+    }
+}
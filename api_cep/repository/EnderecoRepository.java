@@ -1,19 +1,35 @@
 package com.example.api_cep.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.api_cep.dto.EnderecoTextoDTO;
 import com.example.api_cep.entity.Endereco;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository para operações no banco de dados de Endereço
  * Todas as queries SQL estão explícitas para visualização
+ * 
+ * As consultas mais repetidas usam o cache de consultas do Hibernate; o resultado em cache é
+ * invalidado automaticamente quando tb_enderecos é alterada pelo Hibernate, e por
+ * {@link com.example.api_cep.cache.InvalidacaoCacheHibernate} nas escritas via JDBC.
+ * 
+ * Em bancos com tb_enderecos particionada por UF (ver db/particionamento-uf-postgresql.sql), as
+ * variantes com {@code uf} filtram pela chave de partição e leem apenas a partição da UF.
  */
 @Repository
 public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
@@ -22,9 +38,63 @@ public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
      * Busca um endereço específico pelo CEP
      * Query SQL: SELECT * FROM tb_enderecos WHERE cep = ?
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Endereco.REGIAO_CACHE_CONSULTAS)
+    })
     @Query("SELECT e FROM Endereco e WHERE e.cep = :cep")
     Optional<Endereco> findByCep(@Param("cep") String cep);
     
+    /**
+     * Busca um endereço pelo CEP sempre no banco, sem o cache de consultas nem o de entidades
+     * Usada para reler a linha após escritas feitas fora do Hibernate
+     * Query SQL: SELECT * FROM tb_enderecos WHERE cep = ?
+     */
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query("SELECT e FROM Endereco e WHERE e.cep = :cep")
+    Optional<Endereco> findByCepNoBanco(@Param("cep") String cep);
+    
+    /**
+     * Versão atual do endereço, lida sempre no banco (consulta escalar, fora dos caches)
+     * Query SQL: SELECT versao FROM tb_enderecos WHERE cep = ?
+     */
+    @Query("SELECT e.versao FROM Endereco e WHERE e.cep = :cep")
+    Optional<Long> findVersaoByCep(@Param("cep") String cep);
+    
+    /**
+     * Busca um endereço pelo CEP dentro da sua UF, para que só a partição da UF seja lida
+     * Query SQL: SELECT * FROM tb_enderecos WHERE uf = ? AND cep = ?
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Endereco.REGIAO_CACHE_CONSULTAS)
+    })
+    @Query("SELECT e FROM Endereco e WHERE e.uf = :uf AND e.cep = :cep")
+    Optional<Endereco> findByUfAndCep(@Param("uf") String uf, @Param("cep") String cep);
+    
+    /**
+     * Busca vários endereços pelos CEPs informados
+     * Query SQL: SELECT * FROM tb_enderecos WHERE cep IN (?, ?, ...)
+     */
+    @Query("SELECT e FROM Endereco e WHERE e.cep IN :ceps")
+    List<Endereco> findByCepIn(@Param("ceps") Collection<String> ceps);
+    
+    /**
+     * Busca endereços de uma faixa de CEPs em ordem, continuando após o último CEP já lido (keyset)
+     * Query SQL: SELECT * FROM tb_enderecos WHERE cep >= ? AND cep <= ? AND cep > ? ORDER BY cep LIMIT ?
+     */
+    @Query("SELECT e FROM Endereco e WHERE e.cep >= :inicio AND e.cep <= :fim AND e.cep > :apos ORDER BY e.cep")
+    List<Endereco> findFaixaApos(@Param("inicio") String inicio, @Param("fim") String fim,
+                                 @Param("apos") String apos, Pageable pageable);
+    
+    /**
+     * Percorre os campos textuais de todos os endereços, para construir índices de busca (exige transação aberta)
+     * Query SQL: SELECT cep, logradouro, complemento, bairro, cidade, uf FROM tb_enderecos
+     */
+    @Query("SELECT new com.example.api_cep.dto.EnderecoTextoDTO(e.cep, e.logradouro, e.complemento, e.bairro, e.cidade, e.uf) " +
+           "FROM Endereco e")
+    Stream<EnderecoTextoDTO> streamAllTextos();
+    
     /**
      * Busca endereços que contenham o logradouro informado (busca parcial)
      * Query SQL: SELECT * FROM tb_enderecos WHERE LOWER(logradouro) LIKE LOWER(CONCAT('%', ?, '%'))
@@ -32,18 +102,41 @@ public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
     @Query("SELECT e FROM Endereco e WHERE LOWER(e.logradouro) LIKE LOWER(CONCAT('%', :logradouro, '%'))")
     Page<Endereco> findByLogradouroContainingIgnoreCase(@Param("logradouro") String logradouro, Pageable pageable);
     
+    /**
+     * Busca endereços de uma UF que contenham o logradouro informado (busca parcial)
+     * Query SQL: SELECT * FROM tb_enderecos WHERE uf = ? AND LOWER(logradouro) LIKE LOWER(CONCAT('%', ?, '%'))
+     */
+    @Query("SELECT e FROM Endereco e WHERE e.uf = :uf AND LOWER(e.logradouro) LIKE LOWER(CONCAT('%', :logradouro, '%'))")
+    Page<Endereco> findByUfAndLogradouroContainingIgnoreCase(@Param("uf") String uf, @Param("logradouro") String logradouro,
+                                                             Pageable pageable);
+    
     /**
      * Busca todos os endereços de uma cidade específica
      * Query SQL: SELECT * FROM tb_enderecos WHERE LOWER(cidade) = LOWER(?)
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Endereco.REGIAO_CACHE_CONSULTAS)
+    })
     @Query("SELECT e FROM Endereco e WHERE LOWER(e.cidade) = LOWER(:cidade)")
     Page<Endereco> findByCidadeIgnoreCase(@Param("cidade") String cidade, Pageable pageable);
     
     /**
-     * Busca endereços por UF (estado)
-     * Query SQL: SELECT * FROM tb_enderecos WHERE UPPER(uf) = UPPER(?)
+     * Busca todos os endereços de uma cidade de uma UF
+     * Query SQL: SELECT * FROM tb_enderecos WHERE uf = ? AND LOWER(cidade) = LOWER(?)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Endereco.REGIAO_CACHE_CONSULTAS)
+    })
+    @Query("SELECT e FROM Endereco e WHERE e.uf = :uf AND LOWER(e.cidade) = LOWER(:cidade)")
+    Page<Endereco> findByUfAndCidadeIgnoreCase(@Param("uf") String uf, @Param("cidade") String cidade, Pageable pageable);
+    
+    /**
+     * Busca endereços por UF (estado), informada em maiúsculas como é gravada
+     * Query SQL: SELECT * FROM tb_enderecos WHERE uf = ?
      */
-    @Query("SELECT e FROM Endereco e WHERE UPPER(e.uf) = UPPER(:uf)")
+    @Query("SELECT e FROM Endereco e WHERE e.uf = :uf")
     Page<Endereco> findByUf(@Param("uf") String uf, Pageable pageable);
     
     /**
@@ -53,6 +146,14 @@ public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
     @Query("SELECT e FROM Endereco e WHERE LOWER(e.bairro) = LOWER(:bairro) AND LOWER(e.cidade) = LOWER(:cidade)")
     Page<Endereco> findByBairroAndCidade(@Param("bairro") String bairro, @Param("cidade") String cidade, Pageable pageable);
     
+    /**
+     * Busca endereços por bairro e cidade de uma UF
+     * Query SQL: SELECT * FROM tb_enderecos WHERE uf = ? AND LOWER(bairro) = LOWER(?) AND LOWER(cidade) = LOWER(?)
+     */
+    @Query("SELECT e FROM Endereco e WHERE e.uf = :uf AND LOWER(e.bairro) = LOWER(:bairro) AND LOWER(e.cidade) = LOWER(:cidade)")
+    Page<Endereco> findByUfAndBairroAndCidade(@Param("uf") String uf, @Param("bairro") String bairro,
+                                              @Param("cidade") String cidade, Pageable pageable);
+    
     /**
      * Verifica se um CEP já existe no banco
      * Query SQL: SELECT COUNT(*) > 0 FROM tb_enderecos WHERE cep = ?
@@ -73,4 +174,15 @@ public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
      */
     @Query("SELECT COUNT(e) FROM Endereco e WHERE LOWER(e.cidade) = LOWER(:cidade)")
     long countByCidade(@Param("cidade") String cidade);
+    
+    /**
+     * Lista todos os endereços com paginação, usando o cache de consultas
+     * Query SQL: SELECT * FROM tb_enderecos LIMIT ? OFFSET ?
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Endereco.REGIAO_CACHE_CONSULTAS)
+    })
+    Page<Endereco> findAll(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.example.api_cep.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Repository do ranking de acessos compartilhado entre as instâncias (tb_ceps_acessos)
+ * As linhas de cada instância são substituídas em um único batch, via JDBC
+ */
+@Repository
+@RequiredArgsConstructor
+public class RankingAcessoRepository {
+    
+    private static final String SQL_DELETE_INSTANCIA = "DELETE FROM tb_ceps_acessos WHERE instancia = ?";
+    
+    private static final String SQL_INSERT =
+            "INSERT INTO tb_ceps_acessos (instancia, cep, contagem, atualizado_em) VALUES (?, ?, ?, ?)";
+    
+    private static final String SQL_SELECT_RANKING =
+            "SELECT cep, SUM(contagem) AS total FROM tb_ceps_acessos WHERE atualizado_em >= ? " +
+            "GROUP BY cep ORDER BY total DESC LIMIT ?";
+    
+    private static final String SQL_DELETE_ANTIGOS = "DELETE FROM tb_ceps_acessos WHERE atualizado_em < ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Substitui as contagens gravadas pela instância
+     * Query SQL: DELETE FROM tb_ceps_acessos WHERE instancia = ?; INSERT INTO tb_ceps_acessos (...) VALUES (...)
+     */
+    @Transactional
+    public void substituir(String instancia, Map<String, Integer> contagens, LocalDateTime agora) {
+        jdbcTemplate.update(SQL_DELETE_INSTANCIA, instancia);
+        List<Object[]> parametros = contagens.entrySet().stream()
+                .map(entrada -> new Object[] { instancia, entrada.getKey(), entrada.getValue(), Timestamp.valueOf(agora) })
+                .toList();
+        jdbcTemplate.batchUpdate(SQL_INSERT, parametros);
+    }
+    
+    /**
+     * Os CEPs mais acessados somando todas as instâncias, do mais para o menos acessado
+     * Query SQL: SELECT cep, SUM(contagem) FROM tb_ceps_acessos WHERE atualizado_em >= ? GROUP BY cep ORDER BY 2 DESC LIMIT ?
+     */
+    public Map<String, Integer> buscarRanking(LocalDateTime desde, int limite) {
+        Map<String, Integer> ranking = new LinkedHashMap<>();
+        jdbcTemplate.query(SQL_SELECT_RANKING,
+                (RowCallbackHandler) rs -> ranking.put(rs.getString("cep"), (int) Math.min(Integer.MAX_VALUE, rs.getLong("total"))),
+                Timestamp.valueOf(desde), limite);
+        return ranking;
+    }
+    
+    /**
+     * Remove contagens de instâncias que deixaram de gravar
+     * Query SQL: DELETE FROM tb_ceps_acessos WHERE atualizado_em < ?
+     */
+    public int removerAnterioresA(LocalDateTime limite) {
+        return jdbcTemplate.update(SQL_DELETE_ANTIGOS, Timestamp.valueOf(limite));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.api_cep.service;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.event.AlteracoesRegistradasEvent;
+import com.example.api_cep.exception.TokenSincronizacaoExpiradoException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada de serviço que acompanha o histórico de alterações compartilhado entre as instâncias
+ *
+ * A cada intervalo, lê no primário as alterações posteriores à última vista, com o estado
+ * atual de cada endereço, e as publica como {@link AlteracoesRegistradasEvent}. É o canal pelo
+ * qual as escritas de uma réplica chegam aos caches locais e aos assinantes de notificações das
+ * demais; o atraso máximo é o intervalo de acompanhamento.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AcompanhamentoAlteracoesService {
+
+    private static final int TAMANHO_PAGINA = 1000;
+
+    private final HistoricoAlteracoesService historico;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Última sequência publicada; nula até a inicialização */
+    private volatile Long ultimaSequencia;
+
+    /**
+     * Parte da sequência atual: o estado anterior já está no banco que as estruturas locais carregam
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void iniciar() {
+        ultimaSequencia = historico.tokenAtual();
+    }
+
+    @Scheduled(fixedDelayString = "${api-cep.sincronizacao.intervalo-acompanhamento-ms:1000}")
+    public void acompanhar() {
+        if (ultimaSequencia == null) {
+            return;
+        }
+        AlteracoesResponseDTO pagina;
+        do {
+            try {
+                pagina = historico.buscarDesde(ultimaSequencia, TAMANHO_PAGINA);
+            } catch (TokenSincronizacaoExpiradoException e) {
+                // Parado por mais tempo que a retenção: as alterações perdidas vencem pelo TTL dos caches
+                log.warn("Acompanhamento do histórico atrasado além da retenção; retomando da sequência atual");
+                ultimaSequencia = historico.tokenAtual();
+                return;
+            }
+            if (!pagina.getAlteracoes().isEmpty()) {
+                eventPublisher.publishEvent(new AlteracoesRegistradasEvent(pagina.getAlteracoes()));
+            }
+            ultimaSequencia = pagina.getProximoToken();
+            log.debug("Alterações do histórico publicadas: {} até a sequência {}", pagina.getAlteracoes().size(), ultimaSequencia);
+        } while (pagina.isPossuiMais());
+    }
+}
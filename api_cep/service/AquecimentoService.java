@@ -0,0 +1,71 @@
+package com.example.api_cep.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.api_cep.cache.EnderecoCache;
+import com.example.api_cep.cache.FrequenciaAcessoCeps;
+import com.example.api_cep.entity.Endereco;
+import com.example.api_cep.repository.EnderecoRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada de serviço que aquece o cache de consultas com os CEPs mais acessados
+ *
+ * É executada pelo {@code CommandLineRunner} da inicialização; como o Spring Boot só
+ * publica o estado de prontidão (ReadinessState.ACCEPTING_TRAFFIC) após todos os runners,
+ * a réplica só é anunciada como pronta depois do aquecimento ou do fim do tempo limite.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AquecimentoService {
+
+    private static final int TAMANHO_BLOCO = 500;
+
+    private final EnderecoRepository repository;
+    private final EnderecoMapper mapper;
+    private final EnderecoCache cache;
+    private final FrequenciaAcessoCeps frequenciaAcesso;
+
+    @Value("${api-cep.aquecimento.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${api-cep.aquecimento.quantidade:10000}")
+    private int quantidade;
+
+    @Value("${api-cep.aquecimento.tempo-maximo-ms:30000}")
+    private long tempoMaximoMs;
+
+    /**
+     * Carrega no cache os CEPs mais acessados, respeitando o tempo limite
+     */
+    public void aquecer() {
+        if (!habilitado) {
+            return;
+        }
+
+        List<String> ceps = frequenciaAcesso.maisAcessados(quantidade);
+        log.info("Iniciando aquecimento do cache com {} CEPs", ceps.size());
+
+        long inicio = System.nanoTime();
+        long prazo = inicio + tempoMaximoMs * 1_000_000;
+        int carregados = 0;
+        for (int i = 0; i < ceps.size(); i += TAMANHO_BLOCO) {
+            if (System.nanoTime() - prazo > 0) {
+                log.warn("Tempo limite de aquecimento atingido após {} de {} CEPs", i, ceps.size());
+                break;
+            }
+            List<Endereco> enderecos = repository.findByCepIn(ceps.subList(i, Math.min(i + TAMANHO_BLOCO, ceps.size())));
+            enderecos.forEach(endereco -> cache.armazenar(mapper.mapToResponseDTO(endereco)));
+            carregados += enderecos.size();
+        }
+
+        log.info("Aquecimento do cache concluído: {} endereços carregados em {} ms",
+                carregados, (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
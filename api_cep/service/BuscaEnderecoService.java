@@ -0,0 +1,154 @@
+package com.example.api_cep.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api_cep.dto.CandidatoEnderecoDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.ResultadoReversoDTO;
+import com.example.api_cep.entity.Endereco;
+import com.example.api_cep.exception.ConsultaInvalidaException;
+import com.example.api_cep.exception.ServicoSobrecarregadoException;
+import com.example.api_cep.indice.IndiceAproximadoEnderecos;
+import com.example.api_cep.indice.IndiceReversoEnderecos;
+import com.example.api_cep.indice.InterpretadorEndereco;
+import com.example.api_cep.indice.NormalizadorTexto;
+import com.example.api_cep.repository.EnderecoRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada de serviço para buscas de endereços por texto, atendidas pelos índices em memória
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuscaEnderecoService {
+    
+    private static final int TAMANHO_MINIMO_TEXTO = 3;
+    
+    /** O custo da busca aproximada cresce com o número de termos; textos maiores são recusados */
+    private static final int TAMANHO_MAXIMO_TEXTO = 200;
+    private static final int MAXIMO_TERMOS = 10;
+    
+    /** Quantidade máxima de CEPs por cláusula IN na carga dos endereços da busca reversa */
+    private static final int TAMANHO_BLOCO_CONSULTA = 1000;
+    
+    private final IndiceAproximadoEnderecos indiceAproximado;
+    private final IndiceReversoEnderecos indiceReverso;
+    private final EnderecoRepository repository;
+    private final EnderecoMapper mapper;
+    
+    /**
+     * Busca tolerante a erros de digitação sobre logradouro, bairro, cidade e UF
+     * 
+     * O índice escolhe e ordena os CEPs; o banco é consultado apenas para os CEPs
+     * retornados, pela chave única.
+     */
+    @Transactional(readOnly = true)
+    public List<CandidatoEnderecoDTO> buscarAproximado(String texto, int limite) {
+        log.debug("Busca aproximada: {}", texto);
+        if (texto == null || texto.strip().length() < TAMANHO_MINIMO_TEXTO) {
+            throw new ConsultaInvalidaException("Informe ao menos " + TAMANHO_MINIMO_TEXTO + " caracteres para a busca");
+        }
+        if (texto.length() > TAMANHO_MAXIMO_TEXTO) {
+            throw new ConsultaInvalidaException("O texto da busca deve ter no máximo " + TAMANHO_MAXIMO_TEXTO + " caracteres");
+        }
+        if (NormalizadorTexto.termos(texto).size() > MAXIMO_TERMOS) {
+            throw new ConsultaInvalidaException("O texto da busca deve ter no máximo " + MAXIMO_TERMOS + " palavras");
+        }
+        if (!indiceAproximado.isPronto()) {
+            throw new ServicoSobrecarregadoException("Índice de busca aproximada em construção; tente novamente");
+        }
+        
+        List<IndiceAproximadoEnderecos.Resultado> resultados = indiceAproximado.buscar(texto, limite);
+        return candidatos(resultados.stream()
+                .collect(Collectors.toMap(IndiceAproximadoEnderecos.Resultado::cep,
+                        IndiceAproximadoEnderecos.Resultado::pontuacao, (a, b) -> a, LinkedHashMap::new)));
+    }
+    
+    /**
+     * Descobre o CEP de um endereço em texto livre ("Av. Paulista, 1578 - Bela Vista, São Paulo - SP")
+     */
+    @Transactional(readOnly = true)
+    public ResultadoReversoDTO resolverEndereco(String texto) {
+        return resolverEnderecos(List.of(texto)).get(0);
+    }
+    
+    /**
+     * Busca reversa em lote: todos os textos são resolvidos no índice e os endereços
+     * de todos eles são carregados de uma vez, em uma única consulta por chave única
+     */
+    @Transactional(readOnly = true)
+    public List<ResultadoReversoDTO> resolverEnderecos(List<String> textos) {
+        log.debug("Busca reversa de {} endereço(s)", textos.size());
+        if (!indiceReverso.isPronto()) {
+            throw new ServicoSobrecarregadoException("Índice de busca reversa em construção; tente novamente");
+        }
+        
+        List<InterpretadorEndereco.EnderecoInterpretado> interpretados = textos.stream()
+                .map(InterpretadorEndereco::interpretar)
+                .toList();
+        List<List<String>> cepsPorTexto = interpretados.stream()
+                .map(indiceReverso::resolver)
+                .toList();
+        
+        Set<String> todos = new LinkedHashSet<>();
+        cepsPorTexto.forEach(todos::addAll);
+        Map<String, EnderecoResponseDTO> enderecos = new HashMap<>();
+        List<String> lista = new ArrayList<>(todos);
+        for (int inicio = 0; inicio < lista.size(); inicio += TAMANHO_BLOCO_CONSULTA) {
+            List<String> bloco = lista.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_CONSULTA, lista.size()));
+            repository.findByCepIn(bloco).forEach(endereco ->
+                    enderecos.putIfAbsent(endereco.getCep(), mapper.mapToResponseDTO(endereco)));
+        }
+        
+        return IntStream.range(0, textos.size())
+                .mapToObj(i -> {
+                    InterpretadorEndereco.EnderecoInterpretado interpretado = interpretados.get(i);
+                    return ResultadoReversoDTO.builder()
+                            .texto(textos.get(i))
+                            .logradouro(interpretado.logradouro())
+                            .numero(interpretado.numero())
+                            .bairro(interpretado.bairro())
+                            .cidade(interpretado.cidade())
+                            .uf(interpretado.uf())
+                            .enderecos(cepsPorTexto.get(i).stream()
+                                    .filter(enderecos::containsKey)
+                                    .map(enderecos::get)
+                                    .toList())
+                            .build();
+                })
+                .toList();
+    }
+    
+    /**
+     * Carrega os endereços dos CEPs informados, mantendo a ordem e a pontuação recebidas;
+     * CEPs removidos depois da indexação são descartados
+     */
+    private List<CandidatoEnderecoDTO> candidatos(Map<String, Double> pontuacoes) {
+        if (pontuacoes.isEmpty()) {
+            return List.of();
+        }
+        Map<String, EnderecoResponseDTO> enderecos = repository.findByCepIn(pontuacoes.keySet()).stream()
+                .collect(Collectors.toMap(Endereco::getCep, mapper::mapToResponseDTO, (a, b) -> a));
+        return pontuacoes.entrySet().stream()
+                .filter(entrada -> enderecos.containsKey(entrada.getKey()))
+                .map(entrada -> CandidatoEnderecoDTO.builder()
+                        .pontuacao(Math.round(entrada.getValue() * 1000) / 1000.0)
+                        .endereco(enderecos.get(entrada.getKey()))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.api_cep.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Component;
+
+import com.example.api_cep.cache.TextosCanonicos;
+import com.example.api_cep.dto.EnderecoRequestDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.ViaCepResponseDTO;
+import com.example.api_cep.entity.Endereco;
+
+/**
+ * Conversões entre a entidade {@link Endereco} e os DTOs, compartilhadas pelos serviços
+ */
+@Component
+public class EnderecoMapper {
+    
+    public EnderecoResponseDTO mapToResponseDTO(Endereco endereco) {
+        return EnderecoResponseDTO.builder()
+                .id(endereco.getId())
+                .cep(endereco.getCep())
+                .logradouro(endereco.getLogradouro())
+                .complemento(endereco.getComplemento())
+                .bairro(endereco.getBairro())
+                .cidade(endereco.getCidade())
+                .uf(endereco.getUf())
+                .ibge(endereco.getIbge())
+                .gia(endereco.getGia())
+                .ddd(endereco.getDdd())
+                .siafi(endereco.getSiafi())
+                .createdAt(endereco.getCreatedAt())
+                .updatedAt(endereco.getUpdatedAt())
+                .versao(endereco.getVersao())
+                .build();
+    }
+    
+    /**
+     * Monta a resposta a partir dos dados enviados, para escritas feitas sem carregar a entidade
+     * (o id não é conhecido nesse caso)
+     */
+    public EnderecoResponseDTO mapRequestToResponseDTO(EnderecoRequestDTO dto, LocalDateTime atualizadoEm) {
+        return EnderecoResponseDTO.builder()
+                .cep(dto.getCep())
+                .logradouro(dto.getLogradouro())
+                .complemento(dto.getComplemento())
+                .bairro(TextosCanonicos.canonico(dto.getBairro()))
+                .cidade(TextosCanonicos.canonico(dto.getCidade()))
+                .uf(TextosCanonicos.canonico(dto.getUf()))
+                .ibge(TextosCanonicos.canonico(dto.getIbge()))
+                .gia(dto.getGia())
+                .ddd(TextosCanonicos.canonico(dto.getDdd()))
+                .siafi(dto.getSiafi())
+                .updatedAt(atualizadoEm)
+                .build();
+    }
+    
+    public Endereco mapToEntity(EnderecoRequestDTO dto) {
+        Endereco endereco = new Endereco();
+        copiarParaEntidade(dto, endereco);
+        return endereco;
+    }
+    
+    /**
+     * Copia os dados enviados para uma entidade existente (id e datas são preservados)
+     */
+    public void copiarParaEntidade(EnderecoRequestDTO dto, Endereco endereco) {
+        endereco.setCep(dto.getCep());
+        endereco.setLogradouro(dto.getLogradouro());
+        endereco.setComplemento(dto.getComplemento());
+        endereco.setBairro(TextosCanonicos.canonico(dto.getBairro()));
+        endereco.setCidade(TextosCanonicos.canonico(dto.getCidade()));
+        endereco.setUf(TextosCanonicos.canonico(dto.getUf()));
+        endereco.setIbge(TextosCanonicos.canonico(dto.getIbge()));
+        endereco.setGia(dto.getGia());
+        endereco.setDdd(TextosCanonicos.canonico(dto.getDdd()));
+        endereco.setSiafi(dto.getSiafi());
+    }
+
+    public Endereco mapViaCepToEntity(ViaCepResponseDTO viaCepDto) {
+        Endereco endereco = new Endereco();
+        endereco.setCep(viaCepDto.getCep().replace("-", ""));
+        endereco.setLogradouro(viaCepDto.getLogradouro());
+        endereco.setComplemento(viaCepDto.getComplemento());
+        endereco.setBairro(TextosCanonicos.canonico(viaCepDto.getBairro()));
+        endereco.setCidade(TextosCanonicos.canonico(viaCepDto.getLocalidade()));
+        endereco.setUf(TextosCanonicos.canonico(viaCepDto.getUf()));
+        endereco.setIbge(TextosCanonicos.canonico(viaCepDto.getIbge()));
+        endereco.setGia(viaCepDto.getGia());
+        endereco.setDdd(TextosCanonicos.canonico(viaCepDto.getDdd()));
+        endereco.setSiafi(viaCepDto.getSiafi());
+        return endereco;
+    }
+}
@@ -1,18 +1,46 @@
 package com.example.api_cep.service;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.api_cep.cache.EnderecoCache;
+import com.example.api_cep.cache.FrequenciaAcessoCeps;
+import com.example.api_cep.cache.InvalidacaoCacheHibernate;
+import com.example.api_cep.config.EscritasRecentes;
+import com.example.api_cep.config.RoteamentoLeituraEscritaDataSource;
+import com.example.api_cep.diagnostico.EtapaEnderecoEvent;
 import com.example.api_cep.dto.EnderecoRequestDTO;
 import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.FaixaCepResponseDTO;
 import com.example.api_cep.dto.ViaCepResponseDTO;
 import com.example.api_cep.entity.Endereco;
+import com.example.api_cep.exception.CepInvalidoException;
 import com.example.api_cep.exception.CepJaExisteException;
 import com.example.api_cep.exception.EnderecoNaoEncontradoException;
+import com.example.api_cep.exception.VersaoDesatualizadaException;
+import com.example.api_cep.indice.FiltroBloomCeps;
+import com.example.api_cep.repository.EnderecoLoteRepository;
 import com.example.api_cep.repository.EnderecoRepository;
+import com.example.api_cep.validation.FaixasCep;
+import com.example.api_cep.web.LimitadorTaxa;
+import com.example.api_cep.web.ResultadoConsulta;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,33 +54,119 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class EnderecoService {
     
+    private static final Pattern CEP_PATTERN = Pattern.compile("^\\d{8}$");
+    private static final Pattern PREFIXO_CEP_PATTERN = Pattern.compile("^\\d{1,8}$");
+    
     private final EnderecoRepository repository;
     private final WebClient webClient;
+    private final EnderecoMapper mapper;
+    private final HistoricoAlteracoesService historico;
+    private final FaixasCep faixasCep;
+    private final FiltroBloomCeps filtroCeps;
+    private final EnderecoCache cache;
+    private final FrequenciaAcessoCeps frequenciaAcesso;
+    private final EscritasRecentes escritasRecentes;
+    private final LimitadorTaxa limitadorTaxa;
+    private final PrefetchVizinhancaService prefetch;
+    private final PlatformTransactionManager transactionManager;
+    private final EnderecoLoteRepository escritaRepository;
+    private final InvalidacaoCacheHibernate invalidacaoCache;
     
     /**
-     * Busca um endereço pelo CEP, consultando primeiro o banco de dados local
+     * Busca um endereço pelo CEP, consultando primeiro o cache e o banco de dados local
      * e, se não encontrar, busca em uma API externa (ViaCEP).
+     * CEPs fora das faixas alocadas são rejeitados antes de qualquer consulta, e CEPs
+     * que o filtro de Bloom indica não estarem no banco vão direto ao ViaCEP.
+     * Cada ida ao ViaCEP consome o orçamento de consultas de origem do cliente e pode
+     * disparar a pré-carga da vizinhança do CEP em segundo plano.
+     * 
+     * Não abre transação própria: um acerto no cache não deve ocupar conexão do pool;
+     * a leitura e a gravação usam cada uma sua transação. A leitura é somente leitura
+     * (atendida pela réplica, quando houver), exceto para CEPs gravados há pouco, que são
+     * lidos no primário.
      */
-    @Transactional(readOnly = true)
     public EnderecoResponseDTO buscarPorCep(String cep) {
-        log.info("Buscando endereço com CEP: {}", cep);
+        log.debug("Buscando endereço com CEP: {}", cep);
+        String uf = faixasCep.validar(cep);
+        frequenciaAcesso.registrar(cep);
+        
+        EnderecoResponseDTO emCache = EtapaEnderecoEvent.medir(EtapaEnderecoEvent.CACHE, cep, () -> cache.buscar(cep));
+        if (emCache != null) {
+            ResultadoConsulta.CACHE.marcar();
+            prefetch.registrarDemanda(cep);
+            return emCache;
+        }
+        
+        boolean podeConter = filtroCeps.podeConter(cep);
+        if (podeConter) {
+            Optional<Endereco> local = EtapaEnderecoEvent.medir(EtapaEnderecoEvent.BANCO, cep, () -> escritasRecentes.isRecente(cep)
+                    ? buscarNoBanco(uf, cep)
+                    : leitura().execute(tx -> buscarNoBanco(uf, cep)));
+            if (local.isPresent()) {
+                EnderecoResponseDTO response = mapper.mapToResponseDTO(local.get());
+                cache.armazenar(response);
+                ResultadoConsulta.BANCO.marcar();
+                prefetch.registrarDemanda(cep);
+                return response;
+            }
+            filtroCeps.registrarFalsoPositivo();
+        }
         
-        return repository.findByCep(cep)
-                .map(this::mapToResponseDTO)
-                .orElseGet(() -> {
-                    log.info("CEP não encontrado no banco de dados local. Buscando na API externa.");
-                    Endereco endereco = buscarCepExternoESalvar(cep);
-                    return mapToResponseDTO(endereco);
-                });
+        log.debug("CEP não encontrado no banco de dados local. Buscando na API externa.");
+        limitadorTaxa.consumirConsultaOrigem();
+        ResultadoConsulta.ORIGEM.marcar();
+        Endereco salvo = buscarCepExternoESalvar(cep, !podeConter);
+        EnderecoResponseDTO response = mapper.mapToResponseDTO(salvo);
+        cache.armazenar(response);
+        prefetch.agendar(salvo);
+        return response;
+    }
+
+    /**
+     * Busca por CEP para respostas com ETag: a versão devolvida é conferida no primário
+     * 
+     * O cache de consultas e o de segundo nível são locais a cada instância e só recebem as
+     * alterações das demais ao ler o histórico; até lá, poderiam devolver uma versão já
+     * substituída, e um If-Match baseado nela falharia. Quando a versão não confere, o endereço
+     * é relido no banco, sem os caches, e substitui a cópia local.
+     */
+    public EnderecoResponseDTO buscarPorCepVersaoAtual(String cep) {
+        EnderecoResponseDTO response = buscarPorCep(cep);
+        Long versao = RoteamentoLeituraEscritaDataSource.noPrimario(() -> repository.findVersaoByCep(cep)).orElse(null);
+        if (Objects.equals(versao, response.getVersao())) {
+            return response;
+        }
+        
+        cache.remover(cep);
+        EnderecoResponseDTO atual = repository.findByCepNoBanco(cep)
+                .map(mapper::mapToResponseDTO)
+                .orElseThrow(() -> new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep));
+        cache.armazenar(atual);
+        return atual;
+    }
+
+    /**
+     * Busca o CEP primeiro só na UF da faixa (em tabela particionada, só a partição da UF é lida)
+     * e, sem resultado, em toda a tabela: linhas gravadas antes da validação da UF continuam
+     * visíveis sem ir de novo ao ViaCEP
+     */
+    private Optional<Endereco> buscarNoBanco(String uf, String cep) {
+        Optional<Endereco> naUf = repository.findByUfAndCep(uf, cep);
+        return naUf.isPresent() ? naUf : repository.findByCep(cep);
     }
 
     /**
      * Busca o CEP em uma API externa (ViaCEP), salva no banco de dados local e retorna a entidade.
+     * 
+     * A gravação usa uma transação própria de escrita; se outra requisição gravou o mesmo CEP
+     * em paralelo, o registro já existente é retornado. Quando o banco não foi consultado
+     * (negativa do filtro de Bloom, que pode não ter visto um CEP recém-gravado em outra
+     * instância), um CEP desconhecido pelo ViaCEP é conferido no banco antes do 404.
      */
-    private Endereco buscarCepExternoESalvar(String cep) {
-        log.info("Consultando ViaCEP para o CEP: {}", cep);
+    private Endereco buscarCepExternoESalvar(String cep, boolean conferirNoBanco) {
+        log.debug("Consultando ViaCEP para o CEP: {}", cep);
 
-        ViaCepResponseDTO viaCepDto = webClient.get()
+        ViaCepResponseDTO viaCepDto = EtapaEnderecoEvent.medir(EtapaEnderecoEvent.VIACEP, cep, () -> webClient.get()
                 .uri("/{cep}/json", cep)
                 .retrieve()
                 .bodyToMono(ViaCepResponseDTO.class)
@@ -60,166 +174,259 @@ public class EnderecoService {
                     log.error("Erro ao consultar ViaCEP para o CEP: {}", cep, e);
                     return Mono.empty();
                 })
-                .block();
+                .block());
 
         if (viaCepDto == null || viaCepDto.isErro()) {
-            throw new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep);
+            Optional<Endereco> local = conferirNoBanco ? repository.findByCep(cep) : Optional.empty();
+            return local.orElseThrow(() -> new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep));
         }
 
-        Endereco endereco = mapViaCepToEntity(viaCepDto);
+        Endereco endereco = mapper.mapViaCepToEntity(viaCepDto);
+        String ufDaFaixa = faixasCep.ufDoCep(endereco.getCep());
+        if (ufDaFaixa == null) {
+            throw new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep);
+        }
+        if (!ufDaFaixa.equals(endereco.getUf())) {
+            // Gravado na UF da faixa, como as demais escritas: é nela (e na sua partição) que a consulta
+            // por CEP procura, e só assim a chave única (cep, uf) da tabela particionada impede duplicatas
+            log.warn("UF {} informada pelo ViaCEP não corresponde à faixa do CEP {}; gravado com a UF {}",
+                    endereco.getUf(), endereco.getCep(), ufDaFaixa);
+            endereco.setUf(ufDaFaixa);
+        }
         
-        // Salva o novo endereço no banco de dados
-        return repository.save(endereco);
+        TransactionTemplate escrita = new TransactionTemplate(transactionManager);
+        escrita.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            // Salva o novo endereço no banco de dados
+            return EtapaEnderecoEvent.medir(EtapaEnderecoEvent.GRAVACAO, cep, () -> escrita.execute(tx -> {
+                Endereco salvo = repository.save(endereco);
+                historico.registrarAlteracao(mapper.mapToResponseDTO(salvo));
+                return salvo;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            log.info("CEP {} já foi salvo por outra requisição", endereco.getCep());
+            return repository.findByCep(endereco.getCep()).orElseThrow(() -> e);
+        }
     }
     
     /**
-     * Busca endereços por logradouro com paginação
+     * Busca endereços por logradouro com paginação, opcionalmente restrita a uma UF
      */
     @Transactional(readOnly = true)
-    public Page<EnderecoResponseDTO> buscarPorLogradouro(String logradouro, Pageable pageable) {
-        log.info("Buscando endereços com logradouro contendo: {}", logradouro);
+    public Page<EnderecoResponseDTO> buscarPorLogradouro(String logradouro, String uf, Pageable pageable) {
+        log.debug("Buscando endereços com logradouro contendo: {} (UF: {})", logradouro, uf);
         
-        Page<Endereco> enderecos = repository.findByLogradouroContainingIgnoreCase(logradouro, pageable);
-        return enderecos.map(this::mapToResponseDTO);
+        String ufValidada = faixasCep.validarUf(uf);
+        Page<Endereco> enderecos = ufValidada != null
+                ? repository.findByUfAndLogradouroContainingIgnoreCase(ufValidada, logradouro, pageable)
+                : repository.findByLogradouroContainingIgnoreCase(logradouro, pageable);
+        return enderecos.map(mapper::mapToResponseDTO);
     }
     
     /**
-     * Busca endereços por cidade com paginação
+     * Busca endereços por cidade com paginação, opcionalmente restrita a uma UF
      */
     @Transactional(readOnly = true)
-    public Page<EnderecoResponseDTO> buscarPorCidade(String cidade, Pageable pageable) {
-        log.info("Buscando endereços da cidade: {}", cidade);
+    public Page<EnderecoResponseDTO> buscarPorCidade(String cidade, String uf, Pageable pageable) {
+        log.debug("Buscando endereços da cidade: {} (UF: {})", cidade, uf);
         
-        Page<Endereco> enderecos = repository.findByCidadeIgnoreCase(cidade, pageable);
-        return enderecos.map(this::mapToResponseDTO);
+        String ufValidada = faixasCep.validarUf(uf);
+        Page<Endereco> enderecos = ufValidada != null
+                ? repository.findByUfAndCidadeIgnoreCase(ufValidada, cidade, pageable)
+                : repository.findByCidadeIgnoreCase(cidade, pageable);
+        return enderecos.map(mapper::mapToResponseDTO);
     }
     
     /**
      * Cria um novo endereço
+     * 
+     * O INSERT é executado diretamente; um CEP duplicado é detectado pela
+     * constraint única, sem consulta prévia ao banco.
      */
     @Transactional
     public EnderecoResponseDTO criar(EnderecoRequestDTO dto) {
         log.info("Criando novo endereço com CEP: {}", dto.getCep());
+        validarUfDoCep(dto);
         
-        // Valida se CEP já existe
-        if (repository.existsByCep(dto.getCep())) {
-            throw new CepJaExisteException("CEP já cadastrado no sistema: " + dto.getCep());
+        Endereco novo = mapper.mapToEntity(dto);
+        Endereco endereco;
+        try {
+            endereco = EtapaEnderecoEvent.medir(EtapaEnderecoEvent.GRAVACAO, dto.getCep(), () -> repository.saveAndFlush(novo));
+        } catch (DataIntegrityViolationException e) {
+            throw traduzirViolacaoCep(e, "CEP já cadastrado no sistema: " + dto.getCep());
         }
         
-        Endereco endereco = mapToEntity(dto);
-        endereco = repository.save(endereco);
+        EnderecoResponseDTO response = mapper.mapToResponseDTO(endereco);
+        historico.registrarAlteracao(response);
         
         log.info("Endereço criado com sucesso. ID: {}", endereco.getId());
-        return mapToResponseDTO(endereco);
+        return response;
     }
     
     /**
      * Atualiza um endereço existente
+     * 
+     * A alteração é feita por um único UPDATE filtrado pelo CEP (e pela versão, quando
+     * informada), sem carregar a entidade antes; a linha resultante é relida no banco apenas
+     * para compor a resposta. Depois da confirmação, somente a entrada deste endereço sai do
+     * cache de segundo nível.
+     * 
+     * Com a versão esperada, o UPDATE só altera a linha se ninguém a tiver alterado desde então
+     * ({@code WHERE cep = ? AND versao = ?}), sem bloqueá-la; a verificação é feita pelo banco,
+     * nunca contra uma versão em cache.
+     * 
+     * @param versaoEsperada versão em que o cliente baseou a alteração (If-Match); {@code null} para não verificar
      */
     @Transactional
-    public EnderecoResponseDTO atualizar(String cep, EnderecoRequestDTO dto) {
+    public EnderecoResponseDTO atualizar(String cep, EnderecoRequestDTO dto, Long versaoEsperada) {
         log.info("Atualizando endereço com CEP: {}", cep);
+        validarUfDoCep(dto);
         
-        Endereco endereco = repository.findByCep(cep)
-                .orElseThrow(() -> new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep));
+        int linhasAfetadas;
+        try {
+            linhasAfetadas = EtapaEnderecoEvent.medir(EtapaEnderecoEvent.GRAVACAO, cep,
+                    () -> escritaRepository.atualizarPorCep(cep, dto, LocalDateTime.now(), versaoEsperada));
+        } catch (DataIntegrityViolationException e) {
+            throw traduzirViolacaoCep(e, "O novo CEP já está cadastrado: " + dto.getCep());
+        }
         
-        // Se o CEP foi alterado, verifica se o novo CEP já existe
-        if (!cep.equals(dto.getCep()) && repository.existsByCep(dto.getCep())) {
-            throw new CepJaExisteException("O novo CEP já está cadastrado: " + dto.getCep());
+        if (linhasAfetadas == 0) {
+            Endereco atual = repository.findByCepNoBanco(cep)
+                    .orElseThrow(() -> new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep));
+            throw new VersaoDesatualizadaException("O endereço do CEP " + cep + " está na versão " + atual.getVersao() +
+                    "; a alteração foi baseada na versão " + versaoEsperada);
         }
         
-        // Atualiza os dados
-        atualizarEntidade(endereco, dto);
-        endereco = repository.save(endereco);
+        Endereco endereco = repository.findByCepNoBanco(dto.getCep())
+                .orElseThrow(() -> new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + dto.getCep()));
+        invalidacaoCache.invalidarEnderecoAposCommit(endereco.getId());
+        
+        EnderecoResponseDTO response = mapper.mapToResponseDTO(endereco);
+        if (!cep.equals(dto.getCep())) {
+            historico.registrarRemocao(cep);
+        }
+        historico.registrarAlteracao(response);
         
         log.info("Endereço atualizado com sucesso. ID: {}", endereco.getId());
-        return mapToResponseDTO(endereco);
+        return response;
     }
     
     /**
      * Deleta um endereço por CEP
+     * 
+     * Um único DELETE filtrado pelo CEP; a contagem de linhas removidas decide o 404, então
+     * uma remoção concorrente do mesmo CEP também resulta em 404.
      */
     @Transactional
     public void deletar(String cep) {
         log.info("Deletando endereço com CEP: {}", cep);
         
-        final Endereco endereco = repository.findByCep(cep)
-                .orElseThrow(() -> new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep));
+        if (escritaRepository.deletarPorCep(cep) == 0) {
+            throw new EnderecoNaoEncontradoException("Endereço não encontrado para o CEP: " + cep);
+        }
+        invalidacaoCache.invalidarEnderecoAposCommit(null);
+        historico.registrarRemocao(cep);
         
-        repository.delete(endereco);
         log.info("Endereço deletado com sucesso. CEP: {}", cep);
     }
     
+    /**
+     * Busca uma página de endereços da faixa [inicio, fim] em ordem de CEP, após o cursor informado
+     * 
+     * A consulta percorre o índice de CEP a partir do cursor (keyset), sem OFFSET nem COUNT,
+     * então o custo por página é constante ao longo de toda a faixa.
+     */
+    @Transactional(readOnly = true)
+    public FaixaCepResponseDTO buscarPorFaixa(String inicio, String fim, String cursor, int limite) {
+        log.debug("Buscando endereços na faixa de CEP {}-{} após {}", inicio, fim, cursor);
+        
+        List<Endereco> enderecos = repository.findFaixaApos(inicio, fim, cursor != null ? cursor : "",
+                PageRequest.ofSize(limite));
+        String proximoCursor = enderecos.size() < limite ? null : enderecos.get(enderecos.size() - 1).getCep();
+        
+        return FaixaCepResponseDTO.builder()
+                .enderecos(enderecos.stream().map(mapper::mapToResponseDTO).toList())
+                .proximoCursor(proximoCursor)
+                .build();
+    }
+    
+    /**
+     * Converte um prefixo de CEP ou um par início/fim nos limites inclusivos da faixa
+     * 
+     * @return array com o CEP inicial e o CEP final
+     */
+    public String[] resolverFaixa(String inicio, String fim, String prefixo) {
+        if (prefixo != null) {
+            if (!PREFIXO_CEP_PATTERN.matcher(prefixo).matches()) {
+                throw new CepInvalidoException("Prefixo de CEP deve conter de 1 a 8 dígitos: " + prefixo);
+            }
+            return new String[] {
+                    (prefixo + "00000000").substring(0, 8),
+                    (prefixo + "99999999").substring(0, 8)
+            };
+        }
+        if (inicio == null || fim == null || !CEP_PATTERN.matcher(inicio).matches() || !CEP_PATTERN.matcher(fim).matches()) {
+            throw new CepInvalidoException("Informe um prefixo ou os CEPs inicial e final com 8 dígitos");
+        }
+        if (inicio.compareTo(fim) > 0) {
+            throw new CepInvalidoException("CEP inicial maior que o CEP final: " + inicio + "-" + fim);
+        }
+        return new String[] { inicio, fim };
+    }
+    
     /**
      * Busca todos os endereços com paginação
      */
     @Transactional(readOnly = true)
     public Page<EnderecoResponseDTO> buscarTodos(Pageable pageable) {
-        log.info("Buscando todos os endereços.");
+        log.debug("Buscando todos os endereços.");
         Page<Endereco> enderecos = repository.findAll(pageable);
-        return enderecos.map(this::mapToResponseDTO);
+        return enderecos.map(mapper::mapToResponseDTO);
     }
 
-    // Métodos auxiliares de mapeamento
-    
-    private EnderecoResponseDTO mapToResponseDTO(Endereco endereco) {
-        return EnderecoResponseDTO.builder()
-                .id(endereco.getId())
-                .cep(endereco.getCep())
-                .logradouro(endereco.getLogradouro())
-                .complemento(endereco.getComplemento())
-                .bairro(endereco.getBairro())
-                .cidade(endereco.getCidade())
-                .uf(endereco.getUf())
-                .ibge(endereco.getIbge())
-                .gia(endereco.getGia())
-                .ddd(endereco.getDdd())
-                .siafi(endereco.getSiafi())
-                .createdAt(endereco.getCreatedAt())
-                .updatedAt(endereco.getUpdatedAt())
-                .build();
+    /**
+     * Exige que a UF informada seja a da faixa do CEP: as consultas por CEP procuram o
+     * endereço somente na UF da faixa (e, com particionamento, somente na partição dela)
+     */
+    private void validarUfDoCep(EnderecoRequestDTO dto) {
+        if (!faixasCep.pertenceA(dto.getCep(), dto.getUf())) {
+            String ufDoCep = faixasCep.validar(dto.getCep());
+            throw new CepInvalidoException("O CEP " + dto.getCep() + " pertence à UF " + ufDoCep + ", não a " + dto.getUf());
+        }
     }
     
-    private Endereco mapToEntity(EnderecoRequestDTO dto) {
-        Endereco endereco = new Endereco();
-        endereco.setCep(dto.getCep());
-        endereco.setLogradouro(dto.getLogradouro());
-        endereco.setComplemento(dto.getComplemento());
-        endereco.setBairro(dto.getBairro());
-        endereco.setCidade(dto.getCidade());
-        endereco.setUf(dto.getUf());
-        endereco.setIbge(dto.getIbge());
-        endereco.setGia(dto.getGia());
-        endereco.setDdd(dto.getDdd());
-        endereco.setSiafi(dto.getSiafi());
-        return endereco;
+    private TransactionTemplate leitura() {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        return leitura;
     }
 
-    private Endereco mapViaCepToEntity(ViaCepResponseDTO viaCepDto) {
-        Endereco endereco = new Endereco();
-        endereco.setCep(viaCepDto.getCep().replace("-", ""));
-        endereco.setLogradouro(viaCepDto.getLogradouro());
-        endereco.setComplemento(viaCepDto.getComplemento());
-        endereco.setBairro(viaCepDto.getBairro());
-        endereco.setCidade(viaCepDto.getLocalidade());
-        endereco.setUf(viaCepDto.getUf());
-        endereco.setIbge(viaCepDto.getIbge());
-        endereco.setGia(viaCepDto.getGia());
-        endereco.setDdd(viaCepDto.getDdd());
-        endereco.setSiafi(viaCepDto.getSiafi());
-        return endereco;
+    /**
+     * Converte a violação da constraint única de CEP em {@link CepJaExisteException};
+     * outras violações de integridade, inclusive as sem nome de constraint (NOT NULL,
+     * tamanho de coluna), são propagadas sem alteração.
+     */
+    private RuntimeException traduzirViolacaoCep(DataIntegrityViolationException ex, String mensagem) {
+        return violaCepUnico(ex) ? new CepJaExisteException(mensagem) : ex;
     }
-    
-    private void atualizarEntidade(Endereco endereco, EnderecoRequestDTO dto) {
-        endereco.setCep(dto.getCep());
-        endereco.setLogradouro(dto.getLogradouro());
-        endereco.setComplemento(dto.getComplemento());
-        endereco.setBairro(dto.getBairro());
-        endereco.setCidade(dto.getCidade());
-        endereco.setUf(dto.getUf());
-        endereco.setIbge(dto.getIbge());
-        endereco.setGia(dto.getGia());
-        endereco.setDdd(dto.getDdd());
-        endereco.setSiafi(dto.getSiafi());
+
+    /**
+     * Indica se a violação de integridade vem da constraint única de CEP ({@link Endereco#UK_CEP})
+     */
+    static boolean violaCepUnico(DataIntegrityViolationException ex) {
+        Throwable causa = ex;
+        while (causa != null) {
+            if (causa instanceof ConstraintViolationException violacao) {
+                String constraint = violacao.getConstraintName();
+                return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(Endereco.UK_CEP);
+            }
+            // Escritas via JDBC: o driver só informa a constraint na mensagem
+            if (causa instanceof SQLException sql && sql.getMessage() != null
+                    && sql.getMessage().toLowerCase(Locale.ROOT).contains(Endereco.UK_CEP)) {
+                return true;
+            }
+            causa = causa.getCause();
+        }
+        return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.api_cep.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api_cep.repository.EnderecoExportacaoRepository;
+import com.example.api_cep.validation.FaixasCep;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada de serviço para a exportação completa da tabela de endereços em CSV
+ * 
+ * Usada pelo endpoint de exportação e pelo modo de linha de comando. As linhas vão do cursor JDBC
+ * direto para a saída, sem entidades nem DTOs intermediários, então o custo de memória é
+ * constante independentemente do tamanho da tabela.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportacaoEnderecoService {
+    
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    
+    private final EnderecoExportacaoRepository repository;
+    private final FaixasCep faixasCep;
+    
+    /**
+     * Converte e valida a UF do filtro; nula quando não informada
+     */
+    public String validarUf(String uf) {
+        return faixasCep.validarUf(uf);
+    }
+    
+    /**
+     * Escreve os endereços em CSV (RFC 4180, UTF-8, separador vírgula, com cabeçalho) na saída informada
+     * 
+     * A saída não é fechada. A transação somente leitura é atendida pela réplica, quando houver.
+     * 
+     * @return quantidade de endereços exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportarCsv(String uf, OutputStream saida) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        escritor.write(String.join(",", EnderecoExportacaoRepository.COLUNAS));
+        escritor.write("\r\n");
+        
+        long[] total = new long[1];
+        try {
+            repository.percorrer(uf, resultado -> {
+                try {
+                    for (int coluna = 1; coluna <= EnderecoExportacaoRepository.COLUNAS.length; coluna++) {
+                        if (coluna > 1) {
+                            escritor.write(',');
+                        }
+                        Object valor = resultado.getObject(coluna);
+                        if (valor instanceof Timestamp instante) {
+                            escritor.write(instante.toLocalDateTime().toString());
+                        } else if (valor != null) {
+                            escreverCampo(escritor, valor.toString());
+                        }
+                    }
+                    escritor.write("\r\n");
+                    total[0]++;
+                } catch (IOException e) {
+                    // Cliente desconectou ou disco cheio: interrompe a leitura do cursor
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        escritor.flush();
+        
+        log.info("Exportação CSV concluída: {} endereços{} em {} ms", total[0],
+                uf != null ? " de " + uf : "", System.currentTimeMillis() - inicio);
+        return total[0];
+    }
+    
+    private static void escreverCampo(Writer escritor, String valor) throws IOException {
+        boolean precisaAspas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        if (!precisaAspas) {
+            escritor.write(valor);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(valor.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
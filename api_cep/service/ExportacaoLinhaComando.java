@@ -0,0 +1,64 @@
+package com.example.api_cep.service;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Modo de linha de comando da exportação: grava o CSV no arquivo informado e encerra a aplicação
+ * 
+ * Exemplo:
+ * <pre>
+ * java -jar api-cep.jar --spring.main.web-application-type=none \
+ *      --api-cep.exportacao.arquivo=/tmp/enderecos-sp.csv --api-cep.exportacao.uf=SP
+ * </pre>
+ * Executa antes dos demais runners, inclusive o aquecimento do cache (ordem {@code HIGHEST_PRECEDENCE + 1}),
+ * para não aquecer caches que não serão usados.
+ */
+@Component
+@ConditionalOnProperty(name = "api-cep.exportacao.arquivo")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class ExportacaoLinhaComando implements ApplicationRunner {
+    
+    private final ExportacaoEnderecoService exportacaoService;
+    private final ConfigurableApplicationContext contexto;
+    
+    @Value("${api-cep.exportacao.arquivo}")
+    private String arquivo;
+    
+    @Value("${api-cep.exportacao.uf:}")
+    private String uf;
+    
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path destino = Path.of(arquivo);
+        if (destino.getParent() != null) {
+            Files.createDirectories(destino.getParent());
+        }
+        int status = 0;
+        try (OutputStream saida = Files.newOutputStream(destino)) {
+            long total = exportacaoService.exportarCsv(exportacaoService.validarUf(uf), saida);
+            log.info("{} endereços exportados para {}", total, destino.toAbsolutePath());
+        } catch (Exception e) {
+            log.error("Falha na exportação para {}: ", destino, e);
+            status = 1;
+        }
+        int codigoSaida = status;
+        System.exit(SpringApplication.exit(contexto, () -> codigoSaida));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.api_cep.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.api_cep.config.RoteamentoLeituraEscritaDataSource;
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.entity.AlteracaoEndereco;
+import com.example.api_cep.entity.Endereco;
+import com.example.api_cep.event.EnderecoAlteradoEvent;
+import com.example.api_cep.exception.TokenSincronizacaoExpiradoException;
+import com.example.api_cep.repository.AlteracaoEnderecoRepository;
+import com.example.api_cep.repository.EnderecoLoteRepository;
+import com.example.api_cep.repository.EnderecoRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada de serviço do histórico de alterações, base da sincronização incremental
+ *
+ * Toda escrita em tb_enderecos registra aqui, na mesma transação, uma entrada com
+ * sequência monotônica e publica um {@link EnderecoAlteradoEvent}. Os clientes consultam
+ * as alterações posteriores ao último token recebido, de modo que o tráfego acompanha
+ * o volume de mudanças e não o tamanho da tabela.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HistoricoAlteracoesService {
+
+    private final AlteracaoEnderecoRepository alteracaoRepository;
+    private final EnderecoLoteRepository loteRepository;
+    private final EnderecoRepository enderecoRepository;
+    private final EnderecoMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${api-cep.sincronizacao.retencao-dias:30}")
+    private int retencaoDias;
+
+    @PostConstruct
+    void inicializar() {
+        loteRepository.garantirControleAlteracoes();
+    }
+
+    /**
+     * Registra a criação ou atualização de um endereço
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAlteracao(EnderecoResponseDTO endereco) {
+        registrar(List.of(new Registro(AlteracaoEndereco.Tipo.ALTERADO, endereco.getCep(), endereco)));
+    }
+
+    /**
+     * Registra a remoção de um endereço (tombstone)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarRemocao(String cep) {
+        registrar(List.of(new Registro(AlteracaoEndereco.Tipo.REMOVIDO, cep, null)));
+    }
+
+    /**
+     * Registra várias alterações com um único batch
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(List<Registro> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime agora = LocalDateTime.now();
+        List<AlteracaoEndereco> alteracoes = registros.stream()
+                .map(registro -> new AlteracaoEndereco(null, registro.cep(), registro.tipo(), agora))
+                .toList();
+        loteRepository.inserirAlteracoes(alteracoes);
+
+        for (int i = 0; i < registros.size(); i++) {
+            Registro registro = registros.get(i);
+            eventPublisher.publishEvent(new EnderecoAlteradoEvent(
+                    alteracoes.get(i).getSequencia(), registro.tipo(), registro.cep(), registro.endereco(), agora));
+        }
+    }
+
+    /**
+     * Retorna as alterações posteriores ao token informado
+     *
+     * Cada CEP aparece no máximo uma vez por página, com seu estado atual; alterações
+     * seguidas de remoção dentro da página resultam apenas no tombstone.
+     * 
+     * Como as sequências são confirmadas em ordem (ver
+     * {@link EnderecoLoteRepository#inserirAlteracoes}), toda sequência visível já tem as
+     * anteriores confirmadas ou descartadas, e o token retornado nunca pula alterações.
+     * 
+     * As leituras do histórico são feitas no primário: uma réplica atrasada poderia expor
+     * sequências fora de ordem e fazer o cliente pular alterações.
+     */
+    @Transactional(readOnly = true)
+    public AlteracoesResponseDTO buscarDesde(long desde, int limite) {
+        return RoteamentoLeituraEscritaDataSource.noPrimario(() -> montarPagina(desde, limite));
+    }
+
+    private AlteracoesResponseDTO montarPagina(long desde, int limite) {
+        log.debug("Buscando alterações desde o token: {}", desde);
+
+        Long menorSequencia = alteracaoRepository.menorSequencia();
+        if (desde > 0 && menorSequencia != null && desde < menorSequencia - 1) {
+            throw new TokenSincronizacaoExpiradoException(
+                    "Token " + desde + " anterior ao histórico retido; é necessária uma sincronização completa");
+        }
+
+        List<AlteracaoEndereco> pagina = alteracaoRepository.buscarDesde(desde, PageRequest.ofSize(limite + 1));
+        boolean possuiMais = pagina.size() > limite;
+        if (possuiMais) {
+            pagina = pagina.subList(0, limite);
+        }
+
+        // Mantém somente a última alteração de cada CEP, na ordem em que ocorreu
+        Map<String, AlteracaoEndereco> ultimas = new LinkedHashMap<>();
+        for (AlteracaoEndereco alteracao : pagina) {
+            ultimas.remove(alteracao.getCep());
+            ultimas.put(alteracao.getCep(), alteracao);
+        }
+
+        List<String> cepsAlterados = ultimas.values().stream()
+                .filter(alteracao -> alteracao.getTipo() == AlteracaoEndereco.Tipo.ALTERADO)
+                .map(AlteracaoEndereco::getCep)
+                .toList();
+        Map<String, Endereco> enderecos = cepsAlterados.isEmpty() ? Map.of()
+                : enderecoRepository.findByCepIn(cepsAlterados).stream()
+                        .collect(Collectors.toMap(Endereco::getCep, Function.identity()));
+
+        List<AlteracoesResponseDTO.Alteracao> alteracoes = new ArrayList<>(ultimas.size());
+        for (AlteracaoEndereco alteracao : ultimas.values()) {
+            EnderecoResponseDTO endereco = null;
+            if (alteracao.getTipo() == AlteracaoEndereco.Tipo.ALTERADO) {
+                Endereco atual = enderecos.get(alteracao.getCep());
+                if (atual == null) {
+                    // Removido depois desta alteração; o tombstone virá em uma página seguinte
+                    continue;
+                }
+                endereco = mapper.mapToResponseDTO(atual);
+            }
+            alteracoes.add(AlteracoesResponseDTO.Alteracao.builder()
+                    .sequencia(alteracao.getSequencia())
+                    .tipo(alteracao.getTipo())
+                    .cep(alteracao.getCep())
+                    .endereco(endereco)
+                    .build());
+        }
+
+        long proximoToken = pagina.isEmpty() ? desde : pagina.get(pagina.size() - 1).getSequencia();
+        return AlteracoesResponseDTO.builder()
+                .alteracoes(alteracoes)
+                .proximoToken(proximoToken)
+                .possuiMais(possuiMais)
+                .build();
+    }
+
+    /**
+     * Token atual do histórico, usado como ponto de partida após uma carga completa
+     */
+    @Transactional(readOnly = true)
+    public long tokenAtual() {
+        Long maiorSequencia = alteracaoRepository.maiorSequencia();
+        return maiorSequencia != null ? maiorSequencia : 0L;
+    }
+
+    /**
+     * Remove diariamente as alterações mais antigas que o período de retenção
+     */
+    @Scheduled(cron = "${api-cep.sincronizacao.cron-limpeza:0 30 3 * * *}")
+    @Transactional
+    public void removerAlteracoesAntigas() {
+        int removidas = alteracaoRepository.removerAnterioresA(LocalDateTime.now().minusDays(retencaoDias));
+        log.info("Limpeza do histórico de alterações concluída. Registros removidos: {}", removidas);
+    }
+
+    /**
+     * Alteração a ser registrada; {@code endereco} é nulo em remoções
+     */
+    public record Registro(AlteracaoEndereco.Tipo tipo, String cep, EnderecoResponseDTO endereco) {
+    }
+}
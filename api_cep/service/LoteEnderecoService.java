@@ -0,0 +1,313 @@
+package com.example.api_cep.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.api_cep.dto.EnderecoRequestDTO;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.LoteRequestDTO;
+import com.example.api_cep.dto.OperacaoLoteDTO;
+import com.example.api_cep.dto.ResultadoLoteDTO;
+import com.example.api_cep.dto.ResultadoLoteDTO.Status;
+import com.example.api_cep.entity.AlteracaoEndereco;
+import com.example.api_cep.repository.EnderecoLoteRepository;
+import com.example.api_cep.validation.FaixasCep;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada de serviço para escritas de endereços em lote
+ *
+ * Todas as operações são validadas antes de qualquer escrita. As válidas são divididas
+ * em blocos, e cada bloco é aplicado com JDBC batching dentro de uma transação, conforme
+ * o {@link LoteRequestDTO.ModoFalha} escolhido pelo cliente.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoteEnderecoService {
+
+    private static final Pattern CEP_PATTERN = Pattern.compile("^\\d{8}$");
+
+    private final EnderecoLoteRepository loteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final HistoricoAlteracoesService historico;
+    private final EnderecoMapper mapper;
+    private final FaixasCep faixasCep;
+
+    @Value("${api-cep.lote.tamanho-bloco:500}")
+    private int tamanhoBloco;
+
+    /**
+     * Valida e aplica um lote de operações, retornando o resultado de cada item
+     */
+    public ResultadoLoteDTO processar(LoteRequestDTO lote) {
+        List<OperacaoLoteDTO> operacoes = lote.getOperacoes();
+        LoteRequestDTO.ModoFalha modo = lote.getModoFalha() != null ? lote.getModoFalha() : LoteRequestDTO.ModoFalha.POR_ITEM;
+        log.info("Processando lote com {} operações no modo {}", operacoes.size(), modo);
+
+        ResultadoLoteDTO.Item[] itens = new ResultadoLoteDTO.Item[operacoes.size()];
+        List<Integer> validos = new ArrayList<>(operacoes.size());
+        for (int i = 0; i < operacoes.size(); i++) {
+            OperacaoLoteDTO operacao = operacoes.get(i);
+            String erro = validar(operacao);
+            itens[i] = ResultadoLoteDTO.Item.builder()
+                    .indice(i)
+                    .tipo(operacao.getTipo())
+                    .cep(operacao.getTipo() == OperacaoLoteDTO.Tipo.CRIAR ? cepNovo(operacao) : operacao.getCep())
+                    .status(erro != null ? Status.INVALIDO : null)
+                    .mensagem(erro)
+                    .build();
+            if (erro == null) {
+                validos.add(i);
+            }
+        }
+
+        if (modo == LoteRequestDTO.ModoFalha.ATOMICO && validos.size() < operacoes.size()) {
+            marcarPendentes(itens, Status.NAO_APLICADO, "Lote não aplicado: existem operações inválidas");
+        } else {
+            List<List<Integer>> blocos = dividirEmBlocos(validos);
+            switch (modo) {
+                case ATOMICO -> aplicarAtomico(operacoes, blocos, itens);
+                case POR_BLOCO -> blocos.forEach(bloco -> aplicarBloco(operacoes, bloco, itens));
+                case POR_ITEM -> blocos.forEach(bloco -> aplicarPorItem(operacoes, bloco, itens));
+            }
+        }
+
+        int aplicados = (int) Arrays.stream(itens).filter(item -> item.getStatus() == Status.APLICADO).count();
+        log.info("Lote concluído. Aplicados: {}, falhas: {}", aplicados, itens.length - aplicados);
+
+        return ResultadoLoteDTO.builder()
+                .modoFalha(modo)
+                .total(itens.length)
+                .aplicados(aplicados)
+                .falhas(itens.length - aplicados)
+                .itens(Arrays.asList(itens))
+                .build();
+    }
+
+    /**
+     * Aplica todos os blocos em uma única transação; qualquer falha desfaz o lote inteiro
+     */
+    private void aplicarAtomico(List<OperacaoLoteDTO> operacoes, List<List<Integer>> blocos, ResultadoLoteDTO.Item[] itens) {
+        try {
+            Map<Integer, Status> resultados = transactionTemplate.execute(tx -> {
+                Map<Integer, Status> parciais = new HashMap<>();
+                blocos.forEach(bloco -> parciais.putAll(executarBloco(operacoes, bloco, true)));
+                return parciais;
+            });
+            registrarResultados(itens, resultados);
+        } catch (FalhaOperacaoException e) {
+            registrarFalha(itens[e.indice], e.status, e.getMessage());
+            marcarPendentes(itens, Status.NAO_APLICADO, "Lote desfeito devido à falha no item " + e.indice);
+        } catch (DataAccessException e) {
+            log.error("Falha ao aplicar lote atômico", e);
+            marcarPendentes(itens, Status.NAO_APLICADO, "Lote desfeito: " + descreverFalha(e));
+        }
+    }
+
+    /**
+     * Aplica um bloco em sua própria transação; uma falha desfaz somente esse bloco
+     */
+    private void aplicarBloco(List<OperacaoLoteDTO> operacoes, List<Integer> bloco, ResultadoLoteDTO.Item[] itens) {
+        try {
+            registrarResultados(itens, transactionTemplate.execute(tx -> executarBloco(operacoes, bloco, true)));
+        } catch (FalhaOperacaoException e) {
+            registrarFalha(itens[e.indice], e.status, e.getMessage());
+            marcarPendentes(itens, bloco, "Bloco desfeito devido à falha no item " + e.indice);
+        } catch (DataAccessException e) {
+            log.error("Falha ao aplicar bloco do lote", e);
+            marcarPendentes(itens, bloco, "Bloco desfeito: " + descreverFalha(e));
+        }
+    }
+
+    /**
+     * Aplica um bloco em batch e, se ele falhar, reaplica seus itens individualmente
+     * para que apenas os itens problemáticos fiquem de fora
+     */
+    private void aplicarPorItem(List<OperacaoLoteDTO> operacoes, List<Integer> bloco, ResultadoLoteDTO.Item[] itens) {
+        try {
+            registrarResultados(itens, transactionTemplate.execute(tx -> executarBloco(operacoes, bloco, false)));
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Bloco do lote falhou, reaplicando {} itens individualmente: {}", bloco.size(), descreverFalha(e));
+        }
+
+        for (Integer indice : bloco) {
+            try {
+                registrarResultados(itens, transactionTemplate.execute(tx -> executarBloco(operacoes, List.of(indice), false)));
+            } catch (DataIntegrityViolationException e) {
+                if (EnderecoService.violaCepUnico(e)) {
+                    registrarFalha(itens[indice], Status.CONFLITO, "CEP já cadastrado no sistema: " + cepNovo(operacoes.get(indice)));
+                } else {
+                    registrarFalha(itens[indice], Status.ERRO, descreverFalha(e));
+                }
+            } catch (DataAccessException e) {
+                registrarFalha(itens[indice], Status.ERRO, descreverFalha(e));
+            }
+        }
+    }
+
+    /**
+     * Executa as operações do bloco agrupando sequências consecutivas do mesmo tipo
+     * em um único batch, preservando a ordem original do lote
+     */
+    private Map<Integer, Status> executarBloco(List<OperacaoLoteDTO> operacoes, List<Integer> bloco, boolean abortarEmFalha) {
+        Map<Integer, Status> resultados = new HashMap<>();
+        List<HistoricoAlteracoesService.Registro> registrosHistorico = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+
+        int inicio = 0;
+        while (inicio < bloco.size()) {
+            OperacaoLoteDTO.Tipo tipo = operacoes.get(bloco.get(inicio)).getTipo();
+            int fim = inicio;
+            while (fim < bloco.size() && operacoes.get(bloco.get(fim)).getTipo() == tipo) {
+                fim++;
+            }
+
+            List<Integer> sequencia = bloco.subList(inicio, fim);
+            List<OperacaoLoteDTO> lote = sequencia.stream().map(operacoes::get).toList();
+            int[] linhasAfetadas = switch (tipo) {
+                case CRIAR -> loteRepository.inserir(lote, agora);
+                case ATUALIZAR -> loteRepository.atualizar(lote, agora);
+                case DELETAR -> loteRepository.deletar(lote);
+            };
+
+            for (int i = 0; i < sequencia.size(); i++) {
+                int indice = sequencia.get(i);
+                if (linhasAfetadas[i] == 0) {
+                    if (abortarEmFalha) {
+                        throw new FalhaOperacaoException(indice, Status.NAO_ENCONTRADO,
+                                "Endereço não encontrado para o CEP: " + lote.get(i).getCep());
+                    }
+                    resultados.put(indice, Status.NAO_ENCONTRADO);
+                } else {
+                    resultados.put(indice, Status.APLICADO);
+                    registrosHistorico.addAll(registrosHistorico(lote.get(i), agora));
+                }
+            }
+            inicio = fim;
+        }
+        
+        historico.registrar(registrosHistorico);
+        return resultados;
+    }
+
+    private List<HistoricoAlteracoesService.Registro> registrosHistorico(OperacaoLoteDTO operacao, LocalDateTime agora) {
+        List<HistoricoAlteracoesService.Registro> registros = new ArrayList<>(2);
+        if (operacao.getTipo() == OperacaoLoteDTO.Tipo.DELETAR
+                || (operacao.getTipo() == OperacaoLoteDTO.Tipo.ATUALIZAR && !operacao.getCep().equals(operacao.getEndereco().getCep()))) {
+            registros.add(new HistoricoAlteracoesService.Registro(AlteracaoEndereco.Tipo.REMOVIDO, operacao.getCep(), null));
+        }
+        if (operacao.getTipo() != OperacaoLoteDTO.Tipo.DELETAR) {
+            EnderecoResponseDTO endereco = mapper.mapRequestToResponseDTO(operacao.getEndereco(), agora);
+            registros.add(new HistoricoAlteracoesService.Registro(AlteracaoEndereco.Tipo.ALTERADO, endereco.getCep(), endereco));
+        }
+        return registros;
+    }
+
+    private String validar(OperacaoLoteDTO operacao) {
+        if (operacao.getTipo() != OperacaoLoteDTO.Tipo.CRIAR
+                && (operacao.getCep() == null || !CEP_PATTERN.matcher(operacao.getCep()).matches())) {
+            return "CEP deve conter exatamente 8 dígitos numéricos";
+        }
+        if (operacao.getTipo() == OperacaoLoteDTO.Tipo.DELETAR) {
+            return null;
+        }
+        if (operacao.getEndereco() == null) {
+            return "Dados do endereço são obrigatórios";
+        }
+
+        Set<ConstraintViolation<EnderecoRequestDTO>> violacoes = validator.validate(operacao.getEndereco());
+        if (violacoes.isEmpty()) {
+            EnderecoRequestDTO endereco = operacao.getEndereco();
+            return faixasCep.pertenceA(endereco.getCep(), endereco.getUf())
+                    ? null
+                    : "uf: não corresponde à faixa do CEP " + endereco.getCep();
+        }
+        return violacoes.stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private String cepNovo(OperacaoLoteDTO operacao) {
+        return operacao.getEndereco() != null ? operacao.getEndereco().getCep() : operacao.getCep();
+    }
+
+    private List<List<Integer>> dividirEmBlocos(List<Integer> indices) {
+        List<List<Integer>> blocos = new ArrayList<>();
+        for (int inicio = 0; inicio < indices.size(); inicio += tamanhoBloco) {
+            blocos.add(indices.subList(inicio, Math.min(inicio + tamanhoBloco, indices.size())));
+        }
+        return blocos;
+    }
+
+    private void registrarResultados(ResultadoLoteDTO.Item[] itens, Map<Integer, Status> resultados) {
+        resultados.forEach((indice, status) -> {
+            itens[indice].setStatus(status);
+            if (status == Status.NAO_ENCONTRADO) {
+                itens[indice].setMensagem("Endereço não encontrado para o CEP: " + itens[indice].getCep());
+            }
+        });
+    }
+
+    private void registrarFalha(ResultadoLoteDTO.Item item, Status status, String mensagem) {
+        item.setStatus(status);
+        item.setMensagem(mensagem);
+    }
+
+    private void marcarPendentes(ResultadoLoteDTO.Item[] itens, Status status, String mensagem) {
+        for (ResultadoLoteDTO.Item item : itens) {
+            if (item.getStatus() == null) {
+                registrarFalha(item, status, mensagem);
+            }
+        }
+    }
+
+    private void marcarPendentes(ResultadoLoteDTO.Item[] itens, List<Integer> bloco, String mensagem) {
+        for (Integer indice : bloco) {
+            if (itens[indice].getStatus() == null) {
+                registrarFalha(itens[indice], Status.NAO_APLICADO, mensagem);
+            }
+        }
+    }
+
+    private String descreverFalha(DataAccessException e) {
+        if (e instanceof DataIntegrityViolationException violacao && EnderecoService.violaCepUnico(violacao)) {
+            return "Violação de integridade (CEP duplicado)";
+        }
+        return e.getMostSpecificCause().getMessage();
+    }
+
+    /**
+     * Interrompe a transação do bloco quando uma operação não pode ser aplicada
+     */
+    private static class FalhaOperacaoException extends RuntimeException {
+        private final int indice;
+        private final Status status;
+
+        FalhaOperacaoException(int indice, Status status, String mensagem) {
+            super(mensagem);
+            this.indice = indice;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.api_cep.service;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.api_cep.dto.AlteracoesResponseDTO;
+import com.example.api_cep.event.AlteracoesRegistradasEvent;
+import com.example.api_cep.exception.ServicoSobrecarregadoException;
+import com.example.api_cep.exception.TokenSincronizacaoExpiradoException;
+import com.example.api_cep.validation.FaixasCep;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Camada de serviço que envia as alterações de endereços aos assinantes via Server-Sent Events
+ *
+ * Cada assinante tem um buffer limitado; quem não consome no ritmo das alterações é desconectado
+ * e pode retomar a partir do último id recebido (Last-Event-ID), que é a sequência do histórico.
+ * Assinantes ociosos não ocupam threads: um pequeno pool drena os buffers sob demanda.
+ *
+ * As alterações vêm do histórico compartilhado ({@link AlteracoesRegistradasEvent}), de modo
+ * que cada assinante recebe as escritas de todas as instâncias, e não só as da que o atende;
+ * a entrega ao vivo atrasa até o intervalo de acompanhamento do histórico.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificacaoAlteracoesService {
+
+    private static final int TAMANHO_PAGINA_RETOMADA = 500;
+
+    private final HistoricoAlteracoesService historico;
+    private final FaixasCep faixasCep;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService despachante;
+
+    @Value("${api-cep.notificacoes.capacidade-buffer:256}")
+    private int capacidadeBuffer;
+
+    @Value("${api-cep.notificacoes.maximo-assinantes:10000}")
+    private int maximoAssinantes;
+
+    @Value("${api-cep.notificacoes.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${api-cep.notificacoes.threads:2}")
+    private int threads;
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        despachante = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "notificacoes-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        despachante.shutdownNow();
+    }
+
+    /**
+     * Registra um novo assinante, opcionalmente retomando a partir de uma sequência do histórico
+     */
+    public SseEmitter assinar(Filtro filtro, Long desde) {
+        if (assinantes.size() >= maximoAssinantes) {
+            throw new ServicoSobrecarregadoException("Limite de assinantes de notificações atingido");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, filtro, new LinkedBlockingQueue<>(capacidadeBuffer));
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(erro -> remover(assinante));
+
+        // A drenagem fica bloqueada até a retomada terminar; alterações ao vivo aguardam no buffer
+        assinante.agendado.set(true);
+        assinantes.add(assinante);
+        log.info("Novo assinante de notificações. Filtro: {}, desde: {}, total: {}", filtro, desde, assinantes.size());
+
+        despachante.execute(() -> {
+            if (desde != null) {
+                retomar(assinante, desde);
+            }
+            assinante.agendado.set(false);
+            agendar(assinante);
+        });
+        return emitter;
+    }
+
+    /**
+     * Distribui as alterações lidas do histórico para os assinantes cujo filtro as aceita
+     */
+    @EventListener
+    public void aoRegistrarAlteracoes(AlteracoesRegistradasEvent evento) {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+
+        for (AlteracoesResponseDTO.Alteracao alteracao : evento.getAlteracoes()) {
+            String uf = ufDa(alteracao);
+            for (Assinante assinante : assinantes) {
+                if (!assinante.ativo || !assinante.filtro.aceita(alteracao.getCep(), uf)) {
+                    continue;
+                }
+                if (assinante.fila.offer(alteracao)) {
+                    agendar(assinante);
+                } else {
+                    descartar(assinante);
+                }
+            }
+        }
+    }
+
+    /**
+     * Envia um comentário periódico para manter conexões ociosas e detectar clientes desconectados
+     */
+    @Scheduled(fixedDelayString = "${api-cep.notificacoes.heartbeat-ms:30000}")
+    public void enviarHeartbeat() {
+        for (Assinante assinante : assinantes) {
+            try {
+                synchronized (assinante) {
+                    assinante.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                remover(assinante);
+            }
+        }
+    }
+
+    public int getTotalAssinantes() {
+        return assinantes.size();
+    }
+
+    private void agendar(Assinante assinante) {
+        if (!assinante.fila.isEmpty() && assinante.ativo && assinante.agendado.compareAndSet(false, true)) {
+            despachante.execute(() -> drenar(assinante));
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        try {
+            AlteracoesResponseDTO.Alteracao alteracao;
+            while (assinante.ativo && (alteracao = assinante.fila.poll()) != null) {
+                // Alterações já cobertas pela retomada não são repetidas
+                if (alteracao.getSequencia() > assinante.ultimaReenviada) {
+                    enviar(assinante, alteracao);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            remover(assinante);
+        } finally {
+            assinante.agendado.set(false);
+        }
+        agendar(assinante);
+    }
+
+    /**
+     * Reenvia as alterações registradas após {@code desde}, antes de liberar o fluxo ao vivo
+     */
+    private void retomar(Assinante assinante, long desde) {
+        try {
+            long token = desde;
+            AlteracoesResponseDTO pagina;
+            do {
+                pagina = historico.buscarDesde(token, TAMANHO_PAGINA_RETOMADA);
+                for (AlteracoesResponseDTO.Alteracao alteracao : pagina.getAlteracoes()) {
+                    if (assinante.filtro.aceita(alteracao.getCep(), ufDa(alteracao))) {
+                        enviar(assinante, alteracao);
+                    }
+                }
+                token = pagina.getProximoToken();
+            } while (pagina.isPossuiMais() && assinante.ativo);
+            assinante.ultimaReenviada = token;
+        } catch (TokenSincronizacaoExpiradoException e) {
+            encerrarComAviso(assinante, "ressincronizar", e.getMessage());
+        } catch (IOException | IllegalStateException e) {
+            remover(assinante);
+        }
+    }
+
+    /**
+     * Desconecta o assinante cujo buffer encheu; ele deve reconectar informando o último id recebido
+     *
+     * Roda na thread que confirmou a escrita: o assinante sai da distribuição aqui, mas o aviso
+     * de encerramento é enviado pelo despachante, para que um cliente lento não segure quem escreve.
+     */
+    private void descartar(Assinante assinante) {
+        log.warn("Assinante de notificações lento descartado. Filtro: {}", assinante.filtro);
+        remover(assinante);
+        assinante.fila.clear();
+        try {
+            despachante.execute(() -> encerrarComAviso(assinante, "descartado",
+                    "Buffer de notificações esgotado; reconecte informando Last-Event-ID"));
+        } catch (RejectedExecutionException e) {
+            log.debug("Despachante encerrado; assinante descartado sem aviso");
+        }
+    }
+
+    private void encerrarComAviso(Assinante assinante, String nomeEvento, String mensagem) {
+        assinante.ativo = false;
+        try {
+            synchronized (assinante) {
+                assinante.emitter.send(SseEmitter.event().name(nomeEvento).data(mensagem));
+            }
+            assinante.emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Falha ao avisar assinante antes de encerrar: {}", e.getMessage());
+        }
+        remover(assinante);
+    }
+
+    private void enviar(Assinante assinante, AlteracoesResponseDTO.Alteracao alteracao) throws IOException {
+        synchronized (assinante) {
+            assinante.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(alteracao.getSequencia()))
+                    .name("alteracao")
+                    .data(alteracao, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private String ufDa(AlteracoesResponseDTO.Alteracao alteracao) {
+        return alteracao.getEndereco() != null ? alteracao.getEndereco().getUf() : faixasCep.ufDoCep(alteracao.getCep());
+    }
+
+    private void remover(Assinante assinante) {
+        assinante.ativo = false;
+        if (assinantes.remove(assinante)) {
+            log.info("Assinante de notificações removido. Total: {}", assinantes.size());
+        }
+    }
+
+    /**
+     * Filtro de um assinante: UFs aceitas e/ou faixa de CEPs (inclusiva). Campos nulos não filtram.
+     * As UFs são normalizadas para maiúsculas, como ficam gravadas nos endereços.
+     */
+    public record Filtro(Set<String> ufs, String cepInicial, String cepFinal) {
+
+        public Filtro {
+            if (ufs != null) {
+                ufs = ufs.stream()
+                        .map(uf -> uf.trim().toUpperCase(Locale.ROOT))
+                        .collect(Collectors.toUnmodifiableSet());
+            }
+        }
+
+        boolean aceita(String cep, String uf) {
+            if (cepInicial != null && cep.compareTo(cepInicial) < 0) {
+                return false;
+            }
+            if (cepFinal != null && cep.compareTo(cepFinal) > 0) {
+                return false;
+            }
+            // Sem UF conhecida (CEP fora das faixas), a alteração é entregue a todos os assinantes da faixa
+            return ufs == null || ufs.isEmpty() || uf == null || ufs.contains(uf);
+        }
+    }
+
+    private static final class Assinante {
+        private final SseEmitter emitter;
+        private final Filtro filtro;
+        private final BlockingQueue<AlteracoesResponseDTO.Alteracao> fila;
+        private final AtomicBoolean agendado = new AtomicBoolean();
+        private volatile boolean ativo = true;
+        /** Último token entregue pela retomada; alterações até ele são descartadas do buffer */
+        private volatile long ultimaReenviada;
+
+        private Assinante(SseEmitter emitter, Filtro filtro, BlockingQueue<AlteracoesResponseDTO.Alteracao> fila) {
+            this.emitter = emitter;
+            this.filtro = filtro;
+            this.fila = fila;
+        }
+    }
+}
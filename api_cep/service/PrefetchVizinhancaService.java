@@ -0,0 +1,276 @@
+package com.example.api_cep.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.api_cep.cache.EnderecoCache;
+import com.example.api_cep.dto.EnderecoResponseDTO;
+import com.example.api_cep.dto.ViaCepResponseDTO;
+import com.example.api_cep.entity.AlteracaoEndereco;
+import com.example.api_cep.entity.Endereco;
+import com.example.api_cep.indice.FiltroBloomCeps;
+import com.example.api_cep.repository.EnderecoRepository;
+import com.example.api_cep.validation.FaixasCep;
+import com.example.api_cep.web.BaldeTokens;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pré-carga, em segundo plano, dos CEPs vizinhos a um CEP que precisou ser buscado no ViaCEP
+ *
+ * Vizinhos são os CEPs do mesmo logradouro (uma única busca por endereço no ViaCEP) e, opcionalmente,
+ * os CEPs adjacentes do mesmo setor de 5 dígitos. Tudo que é encontrado e ainda não existe é gravado
+ * em tb_enderecos e colocado no cache. As chamadas ao ViaCEP respeitam um orçamento global próprio;
+ * sem orçamento, ou com a fila cheia, a pré-carga é simplesmente descartada.
+ *
+ * Desabilitado por padrão ({@code api-cep.prefetch.habilitado}). A taxa de aproveitamento
+ * ({@code api_cep.prefetch.aproveitados} / {@code api_cep.prefetch.carregados}) indica se compensa.
+ */
+@Service
+@Slf4j
+public class PrefetchVizinhancaService {
+
+    private static final Duration TIMEOUT_ORIGEM = Duration.ofSeconds(5);
+    private static final int MAXIMO_ACOMPANHADOS = 100_000;
+
+    private final EnderecoRepository repository;
+    private final WebClient webClient;
+    private final EnderecoMapper mapper;
+    private final HistoricoAlteracoesService historico;
+    private final EnderecoCache cache;
+    private final FiltroBloomCeps filtroCeps;
+    private final FaixasCep faixasCep;
+    private final TransactionTemplate escrita;
+
+    private final boolean habilitado;
+    private final int vizinhosSetor;
+    private final long retencaoNanos;
+    private final BaldeTokens orcamentoOrigem;
+    private final ThreadPoolExecutor executor;
+
+    /** CEPs pré-carregados ainda não consultados, com o instante da carga */
+    private final Map<String, Long> preCarregados = new ConcurrentHashMap<>();
+    /** Logradouros já pesquisados recentemente, para não repetir a mesma busca */
+    private final Map<String, Long> logradourosPesquisados = new ConcurrentHashMap<>();
+
+    private final Counter carregados;
+    private final Counter aproveitados;
+    private final Counter naoAproveitados;
+    private final Counter consultasOrigem;
+    private final Counter descartadas;
+
+    public PrefetchVizinhancaService(EnderecoRepository repository,
+                                     WebClient webClient,
+                                     EnderecoMapper mapper,
+                                     HistoricoAlteracoesService historico,
+                                     EnderecoCache cache,
+                                     FiltroBloomCeps filtroCeps,
+                                     FaixasCep faixasCep,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${api-cep.prefetch.habilitado:false}") boolean habilitado,
+                                     @Value("${api-cep.prefetch.consultas-origem-por-segundo:1}") double consultasPorSegundo,
+                                     @Value("${api-cep.prefetch.rajada-consultas-origem:5}") int rajada,
+                                     @Value("${api-cep.prefetch.vizinhos-setor:0}") int vizinhosSetor,
+                                     @Value("${api-cep.prefetch.capacidade-fila:100}") int capacidadeFila,
+                                     @Value("${api-cep.prefetch.retencao-minutos:60}") long retencaoMinutos) {
+        this.repository = repository;
+        this.webClient = webClient;
+        this.mapper = mapper;
+        this.historico = historico;
+        this.cache = cache;
+        this.filtroCeps = filtroCeps;
+        this.faixasCep = faixasCep;
+        this.escrita = new TransactionTemplate(transactionManager);
+        this.escrita.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.habilitado = habilitado;
+        this.vizinhosSetor = vizinhosSetor;
+        this.retencaoNanos = TimeUnit.MINUTES.toNanos(retencaoMinutos);
+        this.orcamentoOrigem = new BaldeTokens(consultasPorSegundo, rajada, System.nanoTime());
+
+        this.carregados = Counter.builder("api_cep.prefetch.carregados")
+                .description("CEPs gravados pela pré-carga").register(meterRegistry);
+        this.aproveitados = Counter.builder("api_cep.prefetch.aproveitados")
+                .description("CEPs pré-carregados consultados depois").register(meterRegistry);
+        this.naoAproveitados = Counter.builder("api_cep.prefetch.nao_aproveitados")
+                .description("CEPs pré-carregados não consultados dentro da retenção").register(meterRegistry);
+        this.consultasOrigem = Counter.builder("api_cep.prefetch.consultas_origem").register(meterRegistry);
+        this.descartadas = Counter.builder("api_cep.prefetch.descartadas")
+                .description("Pré-cargas ou consultas descartadas por falta de orçamento ou fila cheia").register(meterRegistry);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "prefetch-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                (tarefa, pool) -> descartadas.increment());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Agenda a pré-carga da vizinhança de um endereço recém-obtido do ViaCEP
+     */
+    public void agendar(Endereco origem) {
+        if (habilitado) {
+            executor.execute(() -> preCarregar(origem));
+        }
+    }
+
+    /**
+     * Contabiliza a primeira consulta a um CEP que veio da pré-carga
+     */
+    public void registrarDemanda(String cep) {
+        if (habilitado && preCarregados.remove(cep) != null) {
+            aproveitados.increment();
+        }
+    }
+
+    /**
+     * Descarta o acompanhamento de CEPs pré-carregados que não foram consultados a tempo
+     */
+    @Scheduled(fixedDelayString = "${api-cep.prefetch.intervalo-limpeza-ms:300000}")
+    public void removerExpirados() {
+        long limite = System.nanoTime() - retencaoNanos;
+        preCarregados.entrySet().removeIf(entrada -> {
+            boolean expirado = entrada.getValue() - limite < 0;
+            if (expirado) {
+                naoAproveitados.increment();
+            }
+            return expirado;
+        });
+        logradourosPesquisados.values().removeIf(instante -> instante - limite < 0);
+    }
+
+    private void preCarregar(Endereco origem) {
+        try {
+            List<ViaCepResponseDTO> encontrados = new ArrayList<>(buscarMesmoLogradouro(origem));
+            encontrados.addAll(buscarVizinhosSetor(origem.getCep()));
+            gravar(encontrados, origem.getCep());
+        } catch (RuntimeException e) {
+            log.debug("Falha na pré-carga da vizinhança do CEP {}: {}", origem.getCep(), e.getMessage());
+        }
+    }
+
+    private List<ViaCepResponseDTO> buscarMesmoLogradouro(Endereco origem) {
+        String logradouro = origem.getLogradouro();
+        if (logradouro == null || logradouro.length() < 3 || origem.getCidade().length() < 3) {
+            return List.of();
+        }
+        String chave = origem.getUf() + "|" + origem.getCidade() + "|" + logradouro;
+        if (logradourosPesquisados.putIfAbsent(chave, System.nanoTime()) != null || !consumirOrcamento()) {
+            return List.of();
+        }
+
+        List<ViaCepResponseDTO> resultado = webClient.get()
+                .uri("/{uf}/{cidade}/{logradouro}/json/", origem.getUf(), origem.getCidade(), logradouro)
+                .retrieve()
+                .bodyToFlux(ViaCepResponseDTO.class)
+                .collectList()
+                .block(TIMEOUT_ORIGEM);
+        return resultado != null ? resultado : List.of();
+    }
+
+    private List<ViaCepResponseDTO> buscarVizinhosSetor(String cep) {
+        List<ViaCepResponseDTO> encontrados = new ArrayList<>();
+        int numero = Integer.parseInt(cep);
+        int setor = numero / 1000;
+        for (int distancia = 1; distancia <= vizinhosSetor; distancia++) {
+            for (int vizinho : new int[] { numero - distancia, numero + distancia }) {
+                String cepVizinho = String.format("%08d", vizinho);
+                if (vizinho / 1000 != setor || !faixasCep.isPossivel(cepVizinho) || filtroCeps.podeConter(cepVizinho)) {
+                    continue;
+                }
+                if (!consumirOrcamento()) {
+                    return encontrados;
+                }
+                ViaCepResponseDTO dto = webClient.get()
+                        .uri("/{cep}/json", cepVizinho)
+                        .retrieve()
+                        .bodyToMono(ViaCepResponseDTO.class)
+                        .block(TIMEOUT_ORIGEM);
+                if (dto != null && !dto.isErro()) {
+                    encontrados.add(dto);
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Grava em uma transação os endereços ainda inexistentes e os coloca no cache após o commit
+     */
+    private void gravar(List<ViaCepResponseDTO> encontrados, String cepOrigem) {
+        Map<String, Endereco> novos = encontrados.stream()
+                .filter(dto -> dto.getCep() != null && !dto.isErro())
+                .map(mapper::mapViaCepToEntity)
+                .filter(endereco -> !endereco.getCep().equals(cepOrigem) && faixasCep.pertenceA(endereco.getCep(), endereco.getUf()))
+                .collect(Collectors.toMap(Endereco::getCep, endereco -> endereco, (a, b) -> a));
+        if (novos.isEmpty()) {
+            return;
+        }
+
+        List<EnderecoResponseDTO> gravados = escrita.execute(tx -> {
+            Set<String> existentes = repository.findByCepIn(novos.keySet()).stream()
+                    .map(Endereco::getCep)
+                    .collect(Collectors.toSet());
+            List<Endereco> inserir = novos.values().stream()
+                    .filter(endereco -> !existentes.contains(endereco.getCep()))
+                    .toList();
+            List<EnderecoResponseDTO> respostas = repository.saveAll(inserir).stream()
+                    .map(mapper::mapToResponseDTO)
+                    .toList();
+            historico.registrar(respostas.stream()
+                    .map(resposta -> new HistoricoAlteracoesService.Registro(
+                            AlteracaoEndereco.Tipo.ALTERADO, resposta.getCep(), resposta))
+                    .toList());
+            return respostas;
+        });
+
+        long agora = System.nanoTime();
+        for (EnderecoResponseDTO endereco : gravados) {
+            cache.armazenar(endereco);
+            if (preCarregados.size() < MAXIMO_ACOMPANHADOS) {
+                preCarregados.put(endereco.getCep(), agora);
+            }
+        }
+        carregados.increment(gravados.size());
+        log.debug("Pré-carga da vizinhança do CEP {}: {} endereços gravados", cepOrigem, gravados.size());
+    }
+
+    private boolean consumirOrcamento() {
+        if (orcamentoOrigem.consumir(System.nanoTime()) > 0) {
+            descartadas.increment();
+            return false;
+        }
+        consultasOrigem.increment();
+        return true;
+    }
+}
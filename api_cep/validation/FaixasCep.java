@@ -0,0 +1,189 @@
+package com.example.api_cep.validation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.api_cep.exception.CepInvalidoException;
+import com.example.api_cep.exception.ConsultaInvalidaException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tabela de faixas de CEP por UF (Correios), usada para rejeitar CEPs impossíveis antes de qualquer I/O
+ * 
+ * As faixas são alinhadas em setores de 5 dígitos, então a tabela é mantida como um array
+ * indexado pelo setor: a consulta é uma checagem de formato e um acesso a array.
+ * A tabela embutida pode ser substituída por um arquivo local (linhas "UF;cepInicial;cepFinal").
+ */
+@Component
+@Slf4j
+public class FaixasCep {
+    
+    private static final int TOTAL_SETORES = 100_000;
+    
+    private static final String[] FAIXAS_PADRAO = {
+        "SP;01000000;19999999",
+        "RJ;20000000;28999999",
+        "ES;29000000;29999999",
+        "MG;30000000;39999999",
+        "BA;40000000;48999999",
+        "SE;49000000;49999999",
+        "PE;50000000;56999999",
+        "AL;57000000;57999999",
+        "PB;58000000;58999999",
+        "RN;59000000;59999999",
+        "CE;60000000;63999999",
+        "PI;64000000;64999999",
+        "MA;65000000;65999999",
+        "PA;66000000;68899999",
+        "AP;68900000;68999999",
+        "AM;69000000;69299999",
+        "RR;69300000;69399999",
+        "AM;69400000;69899999",
+        "AC;69900000;69999999",
+        "DF;70000000;72799999",
+        "GO;72800000;72999999",
+        "DF;73000000;73699999",
+        "GO;73700000;76799999",
+        "RO;76800000;76999999",
+        "TO;77000000;77999999",
+        "MT;78000000;78899999",
+        "RO;78900000;78999999",
+        "MS;79000000;79999999",
+        "PR;80000000;87999999",
+        "SC;88000000;89999999",
+        "RS;90000000;99999999"
+    };
+    
+    @Value("${api-cep.faixas-cep.arquivo:}")
+    private String arquivo;
+    
+    /** UF de cada setor de 5 dígitos, como índice em {@link #ufs} + 1 (0 = setor inexistente) */
+    private final byte[] ufPorSetor = new byte[TOTAL_SETORES];
+    
+    private final List<String> ufs = new ArrayList<>();
+    
+    @PostConstruct
+    void carregar() throws IOException {
+        List<String> linhas = arquivo.isBlank()
+                ? Arrays.asList(FAIXAS_PADRAO)
+                : Files.readAllLines(Path.of(arquivo), StandardCharsets.UTF_8);
+        
+        int faixas = 0;
+        for (String linha : linhas) {
+            if (linha.isBlank() || linha.startsWith("#")) {
+                continue;
+            }
+            String[] campos = linha.trim().split(";");
+            if (campos.length != 3) {
+                throw new IllegalStateException("Linha inválida na tabela de faixas de CEP: " + linha);
+            }
+            registrarFaixa(campos[0].trim(), campos[1].trim(), campos[2].trim());
+            faixas++;
+        }
+        log.info("Tabela de faixas de CEP carregada: {} faixas, {} UFs{}", faixas, ufs.size(),
+                arquivo.isBlank() ? "" : " (" + arquivo + ")");
+    }
+    
+    /**
+     * Indica se o CEP tem formato válido e pertence a alguma faixa alocada
+     */
+    public boolean isPossivel(String cep) {
+        int setor = setor(cep);
+        return setor >= 0 && ufPorSetor[setor] != 0;
+    }
+    
+    /**
+     * UF à qual o CEP pertence, ou {@code null} se o CEP for impossível
+     */
+    public String ufDoCep(String cep) {
+        int setor = setor(cep);
+        if (setor < 0 || ufPorSetor[setor] == 0) {
+            return null;
+        }
+        return ufs.get(ufPorSetor[setor] - 1);
+    }
+    
+    /**
+     * Valida o CEP e retorna sua UF
+     * 
+     * @throws CepInvalidoException se o formato for inválido ou o CEP não pertencer a nenhuma faixa
+     */
+    public String validar(String cep) {
+        String uf = ufDoCep(cep);
+        if (uf == null) {
+            throw new CepInvalidoException("CEP inválido ou inexistente: " + cep);
+        }
+        return uf;
+    }
+    
+    /**
+     * Indica se a UF informada é a UF da faixa do CEP; falso também para CEPs impossíveis
+     */
+    public boolean pertenceA(String cep, String uf) {
+        String ufDoCep = ufDoCep(cep);
+        return ufDoCep != null && ufDoCep.equals(uf);
+    }
+    
+    /**
+     * Normaliza a UF de um filtro de consulta
+     * 
+     * @return a UF em maiúsculas, ou {@code null} se não informada
+     * @throws ConsultaInvalidaException se a UF não constar da tabela de faixas
+     */
+    public String validarUf(String uf) {
+        if (uf == null || uf.isBlank()) {
+            return null;
+        }
+        String normalizada = uf.strip().toUpperCase(Locale.ROOT);
+        if (!ufs.contains(normalizada)) {
+            throw new ConsultaInvalidaException("UF inválida: " + uf);
+        }
+        return normalizada;
+    }
+    
+    private void registrarFaixa(String uf, String cepInicial, String cepFinal) {
+        int inicio = setor(cepInicial);
+        int fim = setor(cepFinal);
+        if (inicio < 0 || fim < inicio) {
+            throw new IllegalStateException("Faixa de CEP inválida para " + uf + ": " + cepInicial + "-" + cepFinal);
+        }
+        
+        int indice = ufs.indexOf(uf);
+        if (indice < 0) {
+            ufs.add(uf);
+            indice = ufs.size() - 1;
+        }
+        Arrays.fill(ufPorSetor, inicio, fim + 1, (byte) (indice + 1));
+    }
+    
+    /**
+     * Setor (5 primeiros dígitos) do CEP, ou -1 se o CEP não tiver exatamente 8 dígitos
+     */
+    private static int setor(String cep) {
+        if (cep == null || cep.length() != 8) {
+            return -1;
+        }
+        int setor = 0;
+        for (int i = 0; i < 8; i++) {
+            char c = cep.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            if (i < 5) {
+                setor = setor * 10 + (c - '0');
+            }
+        }
+        return setor;
+    }
+}
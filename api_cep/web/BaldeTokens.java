@@ -0,0 +1,50 @@
+package com.example.api_cep.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens sem bloqueio, implementado como GCRA (generic cell rate algorithm)
+ * 
+ * Todo o estado é um único instante teórico de chegada, atualizado por CAS: cada consumo o avança
+ * em um intervalo de emissão, e o consumo é negado se ele ficaria mais de uma rajada à frente do
+ * relógio. Equivale a um balde com {@code capacidade} tokens reabastecido a {@code taxaPorSegundo}.
+ */
+public final class BaldeTokens {
+    
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final AtomicLong chegadaTeorica;
+    
+    public BaldeTokens(double taxaPorSegundo, int capacidade, long agora) {
+        this.intervaloNanos = (long) (1_000_000_000L / taxaPorSegundo);
+        this.toleranciaNanos = intervaloNanos * capacidade;
+        this.chegadaTeorica = new AtomicLong(agora);
+    }
+    
+    /**
+     * Consome um token
+     * 
+     * @return 0 se consumiu; caso contrário, nanossegundos até haver um token disponível
+     */
+    public long consumir(long agora) {
+        while (true) {
+            long atual = chegadaTeorica.get();
+            long base = atual - agora > 0 ? atual : agora;
+            long proxima = base + intervaloNanos;
+            long espera = proxima - agora - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (chegadaTeorica.compareAndSet(atual, proxima)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * Indica se o balde voltou a ficar cheio, ou seja, se descartá-lo não muda nenhuma decisão futura
+     */
+    public boolean cheio(long agora) {
+        return chegadaTeorica.get() - agora <= 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.api_cep.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.example.api_cep.exception.ServicoSobrecarregadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limite adaptativo de requisições simultâneas no servidor (AIMD guiado por latência)
+ * 
+ * Compara duas médias móveis exponenciais da latência, no estilo do limitador por gradiente
+ * da Netflix: uma curta, que reflete o momento, e uma longa, que serve de referência. Enquanto
+ * a média curta fica abaixo de {@code tolerancia} vezes a longa e o limite está sendo usado,
+ * ele cresce aos poucos; quando passa disso, o limite é reduzido multiplicativamente, no máximo
+ * uma vez por intervalo de latência. Como as duas médias vêm da mesma mistura de requisições,
+ * um tráfego com rotas rápidas e lentas não derruba o limite, ao contrário de uma referência
+ * pela menor latência. Requisições acima do limite são recusadas com 503 antes de ocupar
+ * uma thread de trabalho por muito tempo.
+ * 
+ * Requisições assíncronas (SSE, fluxos NDJSON) liberam a vaga ao iniciar o processamento
+ * assíncrono e não entram na medição de latência. Chamadas fora do MVC (gRPC) ocupam a vaga
+ * com {@link #executar}.
+ */
+@Component
+@Slf4j
+public class LimitadorConcorrencia implements AsyncHandlerInterceptor {
+    
+    private static final String ATRIBUTO_INICIO = LimitadorConcorrencia.class.getName() + ".inicio";
+    
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicLong limite;
+    private final AtomicLong mediaCurtaNanos = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong mediaLongaNanos = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong ultimaReducao = new AtomicLong(System.nanoTime());
+    
+    private final boolean habilitado;
+    private final double limiteMinimo;
+    private final double limiteMaximo;
+    private final double tolerancia;
+    private final double fatorReducao;
+    private final double pesoCurto;
+    private final double pesoLongo;
+    
+    private final Counter rejeicoes;
+    
+    public LimitadorConcorrencia(MeterRegistry meterRegistry,
+                                 @Value("${api-cep.limites.concorrencia.habilitado:true}") boolean habilitado,
+                                 @Value("${api-cep.limites.concorrencia.limite-inicial:200}") int limiteInicial,
+                                 @Value("${api-cep.limites.concorrencia.limite-minimo:20}") int limiteMinimo,
+                                 @Value("${api-cep.limites.concorrencia.limite-maximo:2000}") int limiteMaximo,
+                                 @Value("${api-cep.limites.concorrencia.tolerancia-latencia:2.0}") double tolerancia,
+                                 @Value("${api-cep.limites.concorrencia.fator-reducao:0.9}") double fatorReducao,
+                                 @Value("${api-cep.limites.concorrencia.amostras-media-curta:10}") int amostrasCurta,
+                                 @Value("${api-cep.limites.concorrencia.amostras-media-longa:600}") int amostrasLonga) {
+        this.habilitado = habilitado;
+        this.limite = new AtomicLong(Double.doubleToLongBits(limiteInicial));
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tolerancia = tolerancia;
+        this.fatorReducao = fatorReducao;
+        this.pesoCurto = 2.0 / (amostrasCurta + 1);
+        this.pesoLongo = 2.0 / (amostrasLonga + 1);
+        
+        this.rejeicoes = Counter.builder("api_cep.limites.rejeicoes")
+                .tag("limite", "concorrencia").register(meterRegistry);
+        Gauge.builder("api_cep.limites.concorrencia.limite", this, LimitadorConcorrencia::getLimite)
+                .register(meterRegistry);
+        Gauge.builder("api_cep.limites.concorrencia.em_andamento", emAndamento, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("api_cep.limites.concorrencia.latencia_referencia", mediaLongaNanos,
+                        referencia -> Double.longBitsToDouble(referencia.get()) / 1e9)
+                .baseUnit("seconds").register(meterRegistry);
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!habilitado || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        request.setAttribute(ATRIBUTO_INICIO, ocupar());
+        return true;
+    }
+    
+    /**
+     * Executa a tarefa ocupando uma vaga do limite, com a mesma medição de latência das requisições HTTP
+     */
+    public <T> T executar(Supplier<T> tarefa) {
+        if (!habilitado) {
+            return tarefa.get();
+        }
+        long inicio = ocupar();
+        boolean concluida = false;
+        try {
+            T resultado = tarefa.get();
+            concluida = true;
+            return resultado;
+        } finally {
+            liberar(inicio, concluida);
+        }
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        liberar(request, false);
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        liberar(request, ex == null);
+    }
+    
+    public double getLimite() {
+        return Double.longBitsToDouble(limite.get());
+    }
+    
+    private void liberar(HttpServletRequest request, boolean amostrar) {
+        Object inicio = request.getAttribute(ATRIBUTO_INICIO);
+        if (inicio == null) {
+            return;
+        }
+        request.removeAttribute(ATRIBUTO_INICIO);
+        liberar((Long) inicio, amostrar);
+    }
+    
+    /**
+     * Ocupa uma vaga e retorna o instante de início; acima do limite, recusa com 503
+     */
+    private long ocupar() {
+        if (emAndamento.incrementAndGet() > (int) getLimite()) {
+            emAndamento.decrementAndGet();
+            rejeicoes.increment();
+            throw new ServicoSobrecarregadoException("Servidor no limite de requisições simultâneas; tente novamente");
+        }
+        return System.nanoTime();
+    }
+    
+    private void liberar(long inicio, boolean amostrar) {
+        int simultaneas = emAndamento.getAndDecrement();
+        if (amostrar) {
+            ajustar(System.nanoTime() - inicio, simultaneas);
+        }
+    }
+    
+    private void ajustar(long latencia, int simultaneas) {
+        double curta = atualizarMedia(mediaCurtaNanos, latencia, pesoCurto);
+        double longa = atualizarMedia(mediaLongaNanos, latencia, pesoLongo);
+        if (longa > 2 * curta) {
+            // Depois de um período lento, a referência volta mais depressa ao normal
+            longa = atualizar(mediaLongaNanos, atual -> atual * 0.95);
+        }
+        
+        if (curta > longa * tolerancia) {
+            long agora = System.nanoTime();
+            long anterior = ultimaReducao.get();
+            if (agora - anterior > latencia && ultimaReducao.compareAndSet(anterior, agora)) {
+                double novo = atualizarLimite(atual -> Math.max(limiteMinimo, atual * fatorReducao));
+                log.debug("Latência média {} ms acima da referência de {} ms; limite de concorrência reduzido para {}",
+                        (long) curta / 1_000_000, (long) longa / 1_000_000, (int) novo);
+            }
+        } else if (simultaneas >= getLimite() / 2) {
+            atualizarLimite(atual -> Math.min(limiteMaximo, atual + 1.0 / atual));
+        }
+    }
+    
+    /**
+     * Incorpora a amostra à média móvel exponencial; a primeira amostra inicia a média
+     */
+    private double atualizarMedia(AtomicLong media, long amostra, double peso) {
+        return atualizar(media, atual -> atual == 0 ? amostra : atual + peso * (amostra - atual));
+    }
+    
+    private double atualizarLimite(DoubleUnaryOperator funcao) {
+        return atualizar(limite, funcao);
+    }
+    
+    private static double atualizar(AtomicLong alvo, DoubleUnaryOperator funcao) {
+        while (true) {
+            long bits = alvo.get();
+            double novo = funcao.applyAsDouble(Double.longBitsToDouble(bits));
+            if (alvo.compareAndSet(bits, Double.doubleToLongBits(novo))) {
+                return novo;
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.api_cep.web;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.example.api_cep.exception.LimiteRequisicoesExcedidoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limite de taxa por cliente (chave de API cadastrada ou, na falta dela, IP de origem)
+ * 
+ * Cada cliente tem dois orçamentos independentes: um para todas as requisições à API e outro,
+ * bem menor, para consultas que precisam ir ao ViaCEP. Assim um integrador que consulta CEPs
+ * aleatórios esgota o segundo orçamento sem afetar quem consulta CEPs já conhecidos.
+ * Os baldes ficam em um {@link ConcurrentHashMap} (particionado internamente) e são atualizados
+ * por CAS; clientes ociosos são descartados periodicamente.
+ * 
+ * O IP usado é o de {@link HttpServletRequest#getRemoteAddr()}; atrás de proxy, configure
+ * {@code server.forward-headers-strategy} para que ele reflita o cliente real. Somente chaves
+ * listadas em {@code api-cep.limites.taxa.chaves-api} identificam o cliente: uma chave qualquer
+ * enviada a cada requisição criaria baldes novos e anularia o limite.
+ * 
+ * Chamadas que não passam pelo MVC (gRPC) identificam o cliente com {@link #identificarCliente(String, String)}
+ * e executam o tratamento em {@link #comCliente}, para que as consultas ao ViaCEP também sejam
+ * descontadas do orçamento do cliente.
+ */
+@Component
+@Slf4j
+public class LimitadorTaxa {
+    
+    public static final String HEADER_CHAVE_API = "X-API-Key";
+    
+    static final String ATRIBUTO_CLIENTE = LimitadorTaxa.class.getName() + ".cliente";
+    
+    private static final ThreadLocal<String> CLIENTE_CHAMADA = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> CONSULTAS_ORIGEM_RESTANTES = new ThreadLocal<>();
+    
+    private final Map<String, Cliente> clientes = new ConcurrentHashMap<>();
+    
+    private final boolean habilitado;
+    private final Set<String> chavesApi;
+    private final double taxaRequisicoes;
+    private final int rajadaRequisicoes;
+    private final double taxaConsultasOrigem;
+    private final int rajadaConsultasOrigem;
+    
+    private final Counter rejeicoesRequisicoes;
+    private final Counter rejeicoesOrigem;
+    
+    public LimitadorTaxa(MeterRegistry meterRegistry,
+                         @Value("${api-cep.limites.taxa.habilitado:true}") boolean habilitado,
+                         @Value("${api-cep.limites.taxa.requisicoes-por-segundo:50}") double taxaRequisicoes,
+                         @Value("${api-cep.limites.taxa.rajada-requisicoes:100}") int rajadaRequisicoes,
+                         @Value("${api-cep.limites.taxa.consultas-origem-por-segundo:2}") double taxaConsultasOrigem,
+                         @Value("${api-cep.limites.taxa.rajada-consultas-origem:20}") int rajadaConsultasOrigem,
+                         @Value("${api-cep.limites.taxa.chaves-api:}") Set<String> chavesApi) {
+        this.habilitado = habilitado;
+        this.chavesApi = Set.copyOf(chavesApi);
+        this.taxaRequisicoes = taxaRequisicoes;
+        this.rajadaRequisicoes = rajadaRequisicoes;
+        this.taxaConsultasOrigem = taxaConsultasOrigem;
+        this.rajadaConsultasOrigem = rajadaConsultasOrigem;
+        
+        this.rejeicoesRequisicoes = Counter.builder("api_cep.limites.rejeicoes")
+                .tag("limite", "requisicoes").register(meterRegistry);
+        this.rejeicoesOrigem = Counter.builder("api_cep.limites.rejeicoes")
+                .tag("limite", "consultas_origem").register(meterRegistry);
+        Gauge.builder("api_cep.limites.clientes", clientes, Map::size)
+                .description("Clientes com estado de limite de taxa em memória").register(meterRegistry);
+    }
+    
+    /**
+     * Consome uma requisição do orçamento geral do cliente e guarda sua identificação na requisição
+     */
+    public void consumirRequisicao(HttpServletRequest request) {
+        if (!habilitado) {
+            return;
+        }
+        String chave = identificarCliente(request.getHeader(HEADER_CHAVE_API), request.getRemoteAddr());
+        request.setAttribute(ATRIBUTO_CLIENTE, chave);
+        consumirRequisicao(chave);
+    }
+    
+    /**
+     * Consome uma requisição do orçamento geral do cliente associado à thread por {@link #comCliente};
+     * sem cliente associado, não faz nada
+     */
+    public void consumirRequisicaoDoCliente() {
+        String chave = CLIENTE_CHAMADA.get();
+        if (chave != null) {
+            consumirRequisicao(chave);
+        }
+    }
+    
+    /**
+     * Consome uma requisição do orçamento geral do cliente já identificado
+     */
+    public void consumirRequisicao(String chave) {
+        if (!habilitado) {
+            return;
+        }
+        long agora = System.nanoTime();
+        long espera = cliente(chave, agora).requisicoes.consumir(agora);
+        if (espera > 0) {
+            rejeicoesRequisicoes.increment();
+            throw new LimiteRequisicoesExcedidoException(
+                    "Limite de requisições excedido para o cliente", segundos(espera));
+        }
+    }
+    
+    /**
+     * Consome uma consulta ao ViaCEP do orçamento do cliente da requisição HTTP corrente ou da
+     * chamada associada por {@link #comCliente}, e do limite aberto por {@link #comLimiteOrigem};
+     * tarefas internas (aquecimento, tarefas agendadas) não são limitadas
+     */
+    public void consumirConsultaOrigem() {
+        int[] restantes = CONSULTAS_ORIGEM_RESTANTES.get();
+        if (restantes != null) {
+            if (restantes[0] <= 0) {
+                rejeicoesOrigem.increment();
+                throw new LimiteRequisicoesExcedidoException(
+                        "Limite de consultas a CEPs não cadastrados excedido para o lote", 1);
+            }
+            restantes[0]--;
+        }
+        if (!habilitado) {
+            return;
+        }
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        Object chave = atributos != null ? atributos.getAttribute(ATRIBUTO_CLIENTE, RequestAttributes.SCOPE_REQUEST)
+                : CLIENTE_CHAMADA.get();
+        if (chave == null) {
+            return;
+        }
+        
+        long agora = System.nanoTime();
+        long espera = cliente((String) chave, agora).consultasOrigem.consumir(agora);
+        if (espera > 0) {
+            rejeicoesOrigem.increment();
+            throw new LimiteRequisicoesExcedidoException(
+                    "Limite de consultas a CEPs não cadastrados excedido para o cliente", segundos(espera));
+        }
+    }
+    
+    /**
+     * Executa o tratamento de uma chamada fora do MVC atribuindo ao cliente as consultas feitas nele
+     */
+    public static void comCliente(String chave, Runnable tratamento) {
+        String anterior = CLIENTE_CHAMADA.get();
+        CLIENTE_CHAMADA.set(chave);
+        try {
+            tratamento.run();
+        } finally {
+            if (anterior != null) {
+                CLIENTE_CHAMADA.set(anterior);
+            } else {
+                CLIENTE_CHAMADA.remove();
+            }
+        }
+    }
+    
+    /**
+     * Executa a tarefa permitindo no máximo {@code consultas} idas ao ViaCEP; as excedentes são
+     * recusadas com {@link LimiteRequisicoesExcedidoException}, sem bloquear a thread na origem
+     */
+    public static <T> T comLimiteOrigem(int consultas, Supplier<T> tarefa) {
+        if (CONSULTAS_ORIGEM_RESTANTES.get() != null) {
+            return tarefa.get();
+        }
+        CONSULTAS_ORIGEM_RESTANTES.set(new int[] { consultas });
+        try {
+            return tarefa.get();
+        } finally {
+            CONSULTAS_ORIGEM_RESTANTES.remove();
+        }
+    }
+    
+    /**
+     * Descarta clientes cujos baldes já voltaram a ficar cheios (o estado não faz mais diferença)
+     */
+    @Scheduled(fixedDelayString = "${api-cep.limites.taxa.intervalo-limpeza-ms:60000}")
+    public void removerOciosos() {
+        long agora = System.nanoTime();
+        int antes = clientes.size();
+        clientes.values().removeIf(cliente -> cliente.requisicoes.cheio(agora) && cliente.consultasOrigem.cheio(agora));
+        log.debug("Limpeza do limitador de taxa: {} de {} clientes removidos", antes - clientes.size(), antes);
+    }
+    
+    private Cliente cliente(String chave, long agora) {
+        Cliente cliente = clientes.get(chave);
+        return cliente != null ? cliente : clientes.computeIfAbsent(chave, k -> new Cliente(
+                new BaldeTokens(taxaRequisicoes, rajadaRequisicoes, agora),
+                new BaldeTokens(taxaConsultasOrigem, rajadaConsultasOrigem, agora)));
+    }
+    
+    /**
+     * Chave de API cadastrada enviada pelo cliente ou, se ausente ou desconhecida, o IP de origem
+     */
+    public String identificarCliente(String chaveApi, String enderecoRemoto) {
+        if (chaveApi != null && chavesApi.contains(chaveApi.trim())) {
+            return "chave:" + chaveApi.trim();
+        }
+        return "ip:" + enderecoRemoto;
+    }
+    
+    private static long segundos(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+    
+    private record Cliente(BaldeTokens requisicoes, BaldeTokens consultasOrigem) {
+    }
+}
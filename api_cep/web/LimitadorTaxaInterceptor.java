@@ -0,0 +1,27 @@
+package com.example.api_cep.web;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Aplica o orçamento geral de requisições do {@link LimitadorTaxa} antes do controller
+ */
+@Component
+@RequiredArgsConstructor
+public class LimitadorTaxaInterceptor implements HandlerInterceptor {
+    
+    private final LimitadorTaxa limitadorTaxa;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            limitadorTaxa.consumirRequisicao(request);
+        }
+        return true;
+    }
+}
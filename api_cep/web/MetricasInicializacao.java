@@ -0,0 +1,79 @@
+package com.example.api_cep.web;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mede o custo de inicialização de cada réplica: tempo até ficar pronta, tempo até a primeira
+ * requisição atendida e memória residente (RSS) nesses dois momentos
+ * 
+ * Os valores são registrados em log e como métricas, para acompanhamento entre releases.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MetricasInicializacao extends OncePerRequestFilter {
+    
+    private final MeterRegistry meterRegistry;
+    
+    private final AtomicBoolean primeiraRequisicaoRegistrada = new AtomicBoolean();
+    
+    private volatile double segundosAtePronto = Double.NaN;
+    private volatile double segundosAtePrimeiraRequisicao = Double.NaN;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoFicarPronto() {
+        segundosAtePronto = ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
+        log.info("Inicialização concluída em {} s (RSS: {} MB)", segundosAtePronto, rssMegabytes());
+        
+        Gauge.builder("api_cep.inicializacao.tempo_ate_pronto", this, metricas -> metricas.segundosAtePronto)
+                .baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("api_cep.inicializacao.tempo_ate_primeira_requisicao", this, metricas -> metricas.segundosAtePrimeiraRequisicao)
+                .baseUnit("seconds").register(meterRegistry);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        
+        if (!primeiraRequisicaoRegistrada.get() && primeiraRequisicaoRegistrada.compareAndSet(false, true)) {
+            segundosAtePrimeiraRequisicao = ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
+            log.info("Primeira requisição atendida {} s após o início da JVM (RSS: {} MB)",
+                    segundosAtePrimeiraRequisicao, rssMegabytes());
+        }
+    }
+    
+    /**
+     * Memória residente do processo lida de /proc (Linux); -1 quando indisponível
+     */
+    private static long rssMegabytes() {
+        try {
+            for (String linha : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (linha.startsWith("VmRSS:")) {
+                    return Long.parseLong(linha.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Fora do Linux a medida não está disponível
+        }
+        return -1;
+    }
+}
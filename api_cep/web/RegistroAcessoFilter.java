@@ -0,0 +1,201 @@
+package com.example.api_cep.web;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.api_cep.diagnostico.DiagnosticoService;
+import com.example.api_cep.diagnostico.RequisicaoLentaEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Log de acesso estruturado, amostrado e gravado fora da thread da requisição
+ * 
+ * Cada requisição à API gera no máximo um registro com resultado ({@link ResultadoConsulta#classificar}),
+ * status e latência. Registros comuns são amostrados por tipo de resultado; erros (5xx) e
+ * requisições lentas são sempre registrados, com detalhes adicionais. As requisições lentas
+ * (limiar de {@link DiagnosticoService}) também emitem o evento JFR {@link RequisicaoLentaEvent}
+ * e são repassadas ao {@link DiagnosticoService} como exemplos, com a mesma medição. A thread da
+ * requisição apenas enfileira o registro; uma thread dedicada formata e grava em lotes no logger
+ * {@value #LOGGER_ACESSO}, que pode ter appender e nível próprios. Com a fila cheia, registros
+ * amostrados são descartados e contabilizados.
+ */
+@Component
+@Slf4j
+public class RegistroAcessoFilter extends OncePerRequestFilter {
+    
+    public static final String LOGGER_ACESSO = "api-cep.acesso";
+    
+    private static final Logger ACESSO = LoggerFactory.getLogger(LOGGER_ACESSO);
+    private static final int TAMANHO_LOTE = 256;
+    
+    private final BlockingQueue<Registro> fila;
+    private final Counter descartados;
+    private final DiagnosticoService diagnosticoService;
+    private Thread gravador;
+    
+    @Value("${api-cep.log-acesso.habilitado:true}")
+    private boolean habilitado;
+    
+    @Value("${api-cep.log-acesso.amostragem.cache:0.01}")
+    private double amostragemCache;
+    
+    @Value("${api-cep.log-acesso.amostragem.banco:0.05}")
+    private double amostragemBanco;
+    
+    @Value("${api-cep.log-acesso.amostragem.origem:1.0}")
+    private double amostragemOrigem;
+    
+    @Value("${api-cep.log-acesso.amostragem.nao-encontrado:0.1}")
+    private double amostragemNaoEncontrado;
+    
+    @Value("${api-cep.log-acesso.amostragem.rejeitado:0.01}")
+    private double amostragemRejeitado;
+    
+    @Value("${api-cep.log-acesso.amostragem.outros:0.1}")
+    private double amostragemOutros;
+    
+    public RegistroAcessoFilter(MeterRegistry meterRegistry, DiagnosticoService diagnosticoService,
+                                @Value("${api-cep.log-acesso.capacidade-fila:10000}") int capacidadeFila) {
+        this.diagnosticoService = diagnosticoService;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.descartados = Counter.builder("api_cep.log_acesso.descartados")
+                .description("Registros de acesso descartados com a fila cheia").register(meterRegistry);
+        Gauge.builder("api_cep.log_acesso.fila", fila, BlockingQueue::size).register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void iniciar() {
+        gravador = new Thread(this::gravar, "registro-acesso");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+    
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        gravador.interrupt();
+        gravador.join(1000);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequisicaoLentaEvent evento = new RequisicaoLentaEvent();
+        evento.begin();
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long latenciaNanos = System.nanoTime() - inicio;
+            int status = response.getStatus();
+            String resultado = ResultadoConsulta.classificar(request, status);
+            boolean lenta = latenciaNanos >= diagnosticoService.limiarLentoNanos();
+            // Respostas em fluxo (SSE, exportações) ficam abertas por definição
+            if (lenta && !request.isAsyncStarted()) {
+                evento.concluir(request.getMethod(), request.getRequestURI(), status, resultado);
+                diagnosticoService.registrarRequisicaoLenta(request.getMethod(), request.getRequestURI(),
+                        status, resultado, latenciaNanos);
+            }
+            if (habilitado) {
+                registrar(request, status, resultado, latenciaNanos, lenta);
+            }
+        }
+    }
+    
+    private void registrar(HttpServletRequest request, int status, String resultado, long latenciaNanos, boolean lenta) {
+        boolean detalhado = status >= 500 || lenta;
+        
+        if (!detalhado && ThreadLocalRandom.current().nextDouble() >= amostragem(resultado)) {
+            return;
+        }
+        
+        Registro registro = new Registro(request.getMethod(), request.getRequestURI(), status, resultado,
+                latenciaNanos, (String) request.getAttribute(LimitadorTaxa.ATRIBUTO_CLIENTE),
+                detalhado ? request.getQueryString() : null,
+                detalhado ? request.getHeader(HttpHeaders.USER_AGENT) : null,
+                detalhado);
+        if (!fila.offer(registro)) {
+            descartados.increment();
+        }
+    }
+    
+    private double amostragem(String resultado) {
+        return switch (resultado) {
+            case "cache" -> amostragemCache;
+            case "banco" -> amostragemBanco;
+            case "origem" -> amostragemOrigem;
+            case "nao_encontrado" -> amostragemNaoEncontrado;
+            case "rejeitado" -> amostragemRejeitado;
+            default -> amostragemOutros;
+        };
+    }
+    
+    private void gravar() {
+        List<Registro> lote = new ArrayList<>(TAMANHO_LOTE);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                lote.add(fila.take());
+                fila.drainTo(lote, TAMANHO_LOTE - 1);
+                lote.forEach(RegistroAcessoFilter::escrever);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Grava o que restou na fila ao encerrar
+        fila.drainTo(lote);
+        lote.forEach(RegistroAcessoFilter::escrever);
+    }
+    
+    private static void escrever(Registro registro) {
+        try {
+            LoggingEventBuilder evento = (registro.detalhado() && registro.status() >= 500 ? ACESSO.atWarn() : ACESSO.atInfo())
+                    .addKeyValue("metodo", registro.metodo())
+                    .addKeyValue("caminho", registro.caminho())
+                    .addKeyValue("status", registro.status())
+                    .addKeyValue("resultado", registro.resultado())
+                    .addKeyValue("latencia_ms", registro.latenciaNanos() / 1_000_000.0)
+                    .addKeyValue("cliente", registro.cliente());
+            if (registro.detalhado()) {
+                evento = evento.addKeyValue("consulta", registro.consulta())
+                        .addKeyValue("user_agent", registro.userAgent());
+            }
+            evento.log("{} {} status={} resultado={} latencia_ms={}{}", registro.metodo(), registro.caminho(),
+                    registro.status(), registro.resultado(), String.format("%.1f", registro.latenciaNanos() / 1_000_000.0),
+                    registro.detalhado() ? " cliente=" + registro.cliente() + " consulta=" + registro.consulta()
+                            + " user_agent=" + registro.userAgent() : "");
+        } catch (RuntimeException e) {
+            log.debug("Falha ao gravar registro de acesso: {}", e.getMessage());
+        }
+    }
+    
+    private record Registro(String metodo, String caminho, int status, String resultado, long latenciaNanos,
+                            String cliente, String consulta, String userAgent, boolean detalhado) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.api_cep.web;
+
+import java.util.Locale;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * De onde veio a resposta de uma consulta, registrada no log de acesso e nos exemplos de
+ * requisições lentas
+ */
+public enum ResultadoConsulta {
+    
+    /** Atendida pelo cache em memória */
+    CACHE,
+    /** Atendida pelo banco de dados local */
+    BANCO,
+    /** Exigiu consulta ao ViaCEP */
+    ORIGEM;
+    
+    static final String ATRIBUTO = ResultadoConsulta.class.getName();
+    
+    /**
+     * Associa o resultado à requisição HTTP corrente; sem requisição, não faz nada
+     */
+    public void marcar() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.setAttribute(ATRIBUTO, this, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+    
+    /**
+     * Resultado de uma requisição concluída: fluxo, nao_encontrado, rejeitado ou erro conforme
+     * o status, senão a origem marcada pela consulta (cache, banco, origem) ou outros
+     */
+    public static String classificar(HttpServletRequest request, int status) {
+        if (request.isAsyncStarted()) {
+            return "fluxo";
+        }
+        if (status == 404) {
+            return "nao_encontrado";
+        }
+        if (status == 429 || status == 503) {
+            return "rejeitado";
+        }
+        if (status >= 500) {
+            return "erro";
+        }
+        Object consulta = request.getAttribute(ATRIBUTO);
+        return consulta != null ? ((ResultadoConsulta) consulta).name().toLowerCase(Locale.ROOT) : "outros";
+    }
+}